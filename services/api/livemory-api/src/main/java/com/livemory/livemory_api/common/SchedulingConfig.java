@@ -0,0 +1,27 @@
+package com.livemory.livemory_api.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs every @Scheduled background job on the shared task scheduler configured by
+ * spring.task.scheduling.*. Jobs start once the context is up. A failed run is logged here and the
+ * job runs again on its next tick. Set app.scheduling.enabled=false to run no job at all, as tests do.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingConfig.class);
+
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer scheduledJobErrorHandler() {
+        return scheduler -> scheduler.setErrorHandler(error -> log.warn("Scheduled job failed", error));
+    }
+}
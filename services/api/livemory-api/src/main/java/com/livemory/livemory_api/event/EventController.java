@@ -4,8 +4,6 @@ import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/events")
 public class EventController {
@@ -22,8 +20,9 @@ public class EventController {
     }
 
     @GetMapping
-    public List<EventResponse> getAllEvents() {
-        return eventService.getAllEvents();
+    public EventPage getAllEvents(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return eventService.getAllEvents(cursor, size);
     }
 
     @GetMapping("/{id}")
@@ -32,13 +31,17 @@ public class EventController {
     }
 
     @GetMapping("/by-creator/{userId}")
-    public List<EventResponse> getEventsByCreator(@PathVariable Long userId) {
-        return eventService.getEventsByCreator(userId);
+    public EventPage getEventsByCreator(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return eventService.getEventsByCreator(userId, cursor, size);
     }
 
     @GetMapping("/by-type/{type}")
-    public List<EventResponse> getEventsByType(@PathVariable EventType type) {
-        return eventService.getEventsByType(type);
+    public EventPage getEventsByType(@PathVariable EventType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return eventService.getEventsByType(type, cursor, size);
     }
 
     @DeleteMapping("/{id}")
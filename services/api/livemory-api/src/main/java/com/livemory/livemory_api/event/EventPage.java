@@ -0,0 +1,12 @@
+package com.livemory.livemory_api.event;
+
+import java.util.List;
+
+/**
+ * One page of events, newest first. Pass {@code nextCursor} back as {@code cursor} to get the
+ * following page; it is null on the last page.
+ */
+public record EventPage(
+        List<EventResponse> items,
+        String nextCursor) {
+}
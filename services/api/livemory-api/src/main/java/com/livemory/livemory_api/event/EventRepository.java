@@ -1,13 +1,46 @@
 package com.livemory.livemory_api.event;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
-    List<Event> findByCreatedById(Long userId);
 
-    List<Event> findByType(EventType type);
+    // Listings are keyset paginated on (createdAt, id), newest first, so every page is an index range scan.
+    // They select EventResponse directly: no managed entities, and the creator id comes from the FK column.
+
+    String EVENT_RESPONSE = "SELECT new com.livemory.livemory_api.event.EventResponse("
+            + "e.id, e.title, e.description, e.type, e.coverImageUrl, e.createdBy.id, "
+            + "e.startDate, e.endDate, e.createdAt) FROM Event e ";
+
+    @Query(EVENT_RESPONSE + "ORDER BY e.createdAt DESC, e.id DESC")
+    List<EventResponse> findFirstPage(Limit limit);
+
+    @Query(EVENT_RESPONSE + "WHERE (e.createdAt, e.id) < (:createdAt, :id) ORDER BY e.createdAt DESC, e.id DESC")
+    List<EventResponse> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(EVENT_RESPONSE + "WHERE e.createdBy.id = :userId ORDER BY e.createdAt DESC, e.id DESC")
+    List<EventResponse> findFirstPageByCreatedById(@Param("userId") Long userId, Limit limit);
+
+    @Query(EVENT_RESPONSE + "WHERE e.createdBy.id = :userId AND (e.createdAt, e.id) < (:createdAt, :id) "
+            + "ORDER BY e.createdAt DESC, e.id DESC")
+    List<EventResponse> findPageByCreatedByIdAfter(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(EVENT_RESPONSE + "WHERE e.type = :type ORDER BY e.createdAt DESC, e.id DESC")
+    List<EventResponse> findFirstPageByType(@Param("type") EventType type, Limit limit);
+
+    @Query(EVENT_RESPONSE + "WHERE e.type = :type AND (e.createdAt, e.id) < (:createdAt, :id) "
+            + "ORDER BY e.createdAt DESC, e.id DESC")
+    List<EventResponse> findPageByTypeAfter(@Param("type") EventType type,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT e.id FROM Event e WHERE e.createdBy.id = :userId ORDER BY e.id")
+    List<Long> findIdsByCreatedById(@Param("userId") Long userId);
 }
@@ -1,16 +1,19 @@
 package com.livemory.livemory_api.event;
 
+import com.livemory.livemory_api.common.KeysetCursor;
 import com.livemory.livemory_api.user.User;
 import com.livemory.livemory_api.user.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class EventService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
 
@@ -45,24 +48,35 @@ public class EventService {
     }
 
     @Transactional(readOnly = true)
-    public List<EventResponse> getAllEvents() {
-        return eventRepository.findAll().stream()
-                .map(EventResponse::from)
-                .collect(Collectors.toList());
+    public EventPage getAllEvents(String cursor, int size) {
+        int limit = pageSize(size);
+        if (cursor == null) {
+            return toPage(eventRepository.findFirstPage(Limit.of(limit + 1)), limit);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toPage(eventRepository.findPageAfter(after.at(), after.id(), Limit.of(limit + 1)), limit);
     }
 
     @Transactional(readOnly = true)
-    public List<EventResponse> getEventsByCreator(Long userId) {
-        return eventRepository.findByCreatedById(userId).stream()
-                .map(EventResponse::from)
-                .collect(Collectors.toList());
+    public EventPage getEventsByCreator(Long userId, String cursor, int size) {
+        int limit = pageSize(size);
+        if (cursor == null) {
+            return toPage(eventRepository.findFirstPageByCreatedById(userId, Limit.of(limit + 1)), limit);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toPage(eventRepository.findPageByCreatedByIdAfter(userId, after.at(), after.id(),
+                Limit.of(limit + 1)), limit);
     }
 
     @Transactional(readOnly = true)
-    public List<EventResponse> getEventsByType(EventType type) {
-        return eventRepository.findByType(type).stream()
-                .map(EventResponse::from)
-                .collect(Collectors.toList());
+    public EventPage getEventsByType(EventType type, String cursor, int size) {
+        int limit = pageSize(size);
+        if (cursor == null) {
+            return toPage(eventRepository.findFirstPageByType(type, Limit.of(limit + 1)), limit);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toPage(eventRepository.findPageByTypeAfter(type, after.at(), after.id(),
+                Limit.of(limit + 1)), limit);
     }
 
     public void deleteEvent(Long id) {
@@ -71,4 +85,22 @@ public class EventService {
         }
         eventRepository.deleteById(id);
     }
+
+    private static int pageSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // One extra row is fetched to know whether another page follows
+    private static EventPage toPage(List<EventResponse> events, int limit) {
+        boolean hasMore = events.size() > limit;
+        List<EventResponse> items = hasMore ? events.subList(0, limit) : events;
+        if (!hasMore) {
+            return new EventPage(items, null);
+        }
+        EventResponse last = items.get(items.size() - 1);
+        return new EventPage(items, new KeysetCursor(last.createdAt(), last.id()).encode());
+    }
 }
@@ -0,0 +1,62 @@
+package com.livemory.livemory_api.expiry;
+
+import com.livemory.livemory_api.invitation.InvitationRepository;
+import com.livemory.livemory_api.paymentlink.PaymentLinkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Marks pending invitations and active payment links as EXPIRED once their expiry date has passed,
+ * so the status column can be trusted by listing queries and read paths never write. Each pass runs
+ * set-based UPDATEs of at most batch-size rows, each in its own short transaction, until nothing is
+ * left; partial indexes on expires_at keep finding due rows cheap. Rows are claimed with
+ * SKIP LOCKED, so every instance can run the sweeper.
+ */
+@Component
+public class ExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpirySweeper.class);
+
+    private final InvitationRepository invitationRepository;
+    private final PaymentLinkRepository paymentLinkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ExpirySweeper(InvitationRepository invitationRepository,
+            PaymentLinkRepository paymentLinkRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.expiry.batch-size:1000}") int batchSize) {
+        this.invitationRepository = invitationRepository;
+        this.paymentLinkRepository = paymentLinkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.expiry.sweep-interval:1m}")
+    void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int invitations = sweep(() -> invitationRepository.expirePending(now, batchSize));
+        int paymentLinks = sweep(() -> paymentLinkRepository.expireActive(now, batchSize));
+        if (invitations > 0 || paymentLinks > 0) {
+            log.info("Expired {} invitations and {} payment links", invitations, paymentLinks);
+        }
+    }
+
+    private int sweep(IntSupplier batch) {
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> batch.getAsInt());
+            total += updated;
+        } while (updated == batchSize && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+}
@@ -0,0 +1,179 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.event.EventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports the budgets of many events into a single ZIP. Each event is rendered on a bounded pool
+ * into its own temp file. Finished files are copied into the archive in completion order and
+ * deleted. Only a small window of exports is in flight at once, so memory and disk use do not
+ * grow with the number of events.
+ */
+@Service
+public class BudgetArchiveService {
+
+    private final BudgetExportService budgetExportService;
+    private final EventRepository eventRepository;
+    private final Path spoolDir;
+    private final int maxEvents;
+    private final int maxInFlight;
+    private final ExecutorService executor;
+
+    public BudgetArchiveService(BudgetExportService budgetExportService,
+            EventRepository eventRepository,
+            @Value("${app.export.spool-dir}") String spoolDir,
+            @Value("${app.export.archive-threads:4}") int archiveThreads,
+            @Value("${app.export.archive-max-events:1000}") int maxEvents) {
+        this.budgetExportService = budgetExportService;
+        this.eventRepository = eventRepository;
+        this.spoolDir = Paths.get(spoolDir).toAbsolutePath();
+        this.maxEvents = maxEvents;
+        this.maxInFlight = archiveThreads * 2;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(archiveThreads, runnable -> {
+            Thread thread = new Thread(runnable, "export-archive-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the events to archive: the given ids, or every event created by the user.
+     */
+    public List<Long> resolveEventIds(Long userId, List<Long> eventIds) {
+        List<Long> ids;
+        if (eventIds != null && !eventIds.isEmpty()) {
+            ids = new ArrayList<>(new LinkedHashSet<>(eventIds));
+        } else if (userId != null) {
+            ids = eventRepository.findIdsByCreatedById(userId);
+        } else {
+            throw new IllegalArgumentException("Either userId or eventIds must be provided");
+        }
+
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("No events to export");
+        }
+        if (ids.size() > maxEvents) {
+            throw new IllegalArgumentException("Cannot export more than " + maxEvents + " events at once");
+        }
+        return ids;
+    }
+
+    /**
+     * Writes one entry per event into a ZIP on the given stream. Events that cannot be exported
+     * (typically because they have no budget) are listed in an errors.txt entry instead.
+     */
+    public void exportArchive(List<Long> eventIds, ExportFormat format, OutputStream out) throws IOException {
+        CompletionService<EventExport> completion = new ExecutorCompletionService<>(executor);
+        Iterator<Long> pending = eventIds.iterator();
+        List<String> errors = new ArrayList<>();
+        int inFlight = 0;
+
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            while (inFlight < maxInFlight && pending.hasNext()) {
+                submit(completion, pending.next(), format);
+                inFlight++;
+            }
+
+            while (inFlight > 0) {
+                EventExport export = take(completion);
+                inFlight--;
+                if (pending.hasNext()) {
+                    submit(completion, pending.next(), format);
+                    inFlight++;
+                }
+
+                if (export.file() == null) {
+                    errors.add("Event " + export.eventId() + ": " + export.error());
+                    continue;
+                }
+                try {
+                    zip.putNextEntry(new ZipEntry("budget_event_" + export.eventId() + format.getExtension()));
+                    Files.copy(export.file(), zip);
+                    zip.closeEntry();
+                } finally {
+                    Files.deleteIfExists(export.file());
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                zip.putNextEntry(new ZipEntry("errors.txt"));
+                zip.write(String.join("\n", errors).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+            out.flush();
+        } finally {
+            // Client went away or a copy failed: let running exports finish and drop their files
+            while (inFlight-- > 0) {
+                EventExport export = take(completion);
+                if (export.file() != null) {
+                    Files.deleteIfExists(export.file());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(CompletionService<EventExport> completion, Long eventId, ExportFormat format) {
+        completion.submit(() -> {
+            Path file = null;
+            try {
+                file = Files.createTempFile(spoolDir, "archive-" + eventId + "-", ".part");
+                try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(file))) {
+                    budgetExportService.exportBudget(eventId, format, fileOut);
+                }
+                return new EventExport(eventId, file, null);
+            } catch (Exception e) {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+                return new EventExport(eventId, null,
+                        e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        });
+    }
+
+    private EventExport take(CompletionService<EventExport> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while building export archive", e);
+        } catch (ExecutionException e) {
+            // Tasks catch their own exceptions, only a java.lang.Error ends up here
+            throw new IOException("Export task failed", e.getCause());
+        }
+    }
+
+    private record EventExport(Long eventId, Path file, String error) {
+    }
+}
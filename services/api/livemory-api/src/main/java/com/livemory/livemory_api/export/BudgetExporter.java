@@ -0,0 +1,21 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.budget.Budget;
+import com.livemory.livemory_api.event.Event;
+import com.livemory.livemory_api.payment.PaymentExportRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Renders one export format. Implementations consume payments one at a time and write
+ * to the stream as they go; they flush the stream but never close it.
+ */
+public interface BudgetExporter {
+
+    ExportFormat format();
+
+    void write(Event event, Budget budget, Iterator<PaymentExportRow> payments, OutputStream out)
+            throws IOException;
+}
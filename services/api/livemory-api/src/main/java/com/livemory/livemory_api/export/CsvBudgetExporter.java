@@ -0,0 +1,59 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.budget.Budget;
+import com.livemory.livemory_api.event.Event;
+import com.livemory.livemory_api.payment.PaymentExportRow;
+import com.opencsv.CSVWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+@Component
+public class CsvBudgetExporter implements BudgetExporter {
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.CSV;
+    }
+
+    @Override
+    public void write(Event event, Budget budget, Iterator<PaymentExportRow> payments, OutputStream out)
+            throws IOException {
+        CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+
+        // Header
+        writer.writeNext(new String[] { "Budget Export - " + event.getTitle() });
+        writer.writeNext(new String[] {});
+
+        // Budget summary
+        writer.writeNext(new String[] { "Budget Total", budget.getTotalBudget().toString() });
+        writer.writeNext(new String[] { "Total Dépensé", budget.getTotalSpent().toString() });
+        writer.writeNext(
+                new String[] { "Reste", budget.getTotalBudget().subtract(budget.getTotalSpent()).toString() });
+        writer.writeNext(new String[] {});
+
+        // Payments header
+        writer.writeNext(new String[] { "Date", "Payeur", "Montant", "Catégorie", "Description" });
+
+        // Payments data
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        while (payments.hasNext()) {
+            PaymentExportRow payment = payments.next();
+            writer.writeNext(new String[] {
+                    payment.paymentDate().format(formatter),
+                    payment.paidByName(),
+                    payment.amount().toString(),
+                    payment.category() != null ? payment.category().name() : "",
+                    payment.description() != null ? payment.description() : ""
+            });
+        }
+
+        writer.flush();
+    }
+}
@@ -0,0 +1,106 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.budget.Budget;
+import com.livemory.livemory_api.event.Event;
+import com.livemory.livemory_api.payment.PaymentExportRow;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+@Component
+public class ExcelBudgetExporter implements BudgetExporter {
+
+    // Rows kept in memory by SXSSF before older ones are flushed to a temp file
+    private static final int ROW_WINDOW = 100;
+    private static final int[] COLUMN_WIDTHS = { 18, 30, 14, 16, 50 };
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.EXCEL;
+    }
+
+    @Override
+    public void write(Event event, Budget budget, Iterator<PaymentExportRow> payments, OutputStream out)
+            throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Budget " + event.getTitle());
+
+            // Styles
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
+            CellStyle currencyStyle = workbook.createCellStyle();
+            currencyStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00 €"));
+
+            // Fixed widths: auto-sizing would need every row, which SXSSF no longer keeps in memory
+            for (int i = 0; i < COLUMN_WIDTHS.length; i++) {
+                sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
+            }
+
+            int rowNum = 0;
+
+            // Title
+            Row titleRow = sheet.createRow(rowNum++);
+            Cell titleCell = titleRow.createCell(0);
+            titleCell.setCellValue("Budget Export - " + event.getTitle());
+            titleCell.setCellStyle(headerStyle);
+
+            rowNum++; // Empty row
+
+            // Budget summary
+            createRow(sheet, rowNum++, "Budget Total:", budget.getTotalBudget(), currencyStyle);
+            createRow(sheet, rowNum++, "Total Dépensé:", budget.getTotalSpent(), currencyStyle);
+            createRow(sheet, rowNum++, "Reste:", budget.getTotalBudget().subtract(budget.getTotalSpent()),
+                    currencyStyle);
+
+            rowNum++; // Empty row
+
+            // Payments header
+            Row headerRow = sheet.createRow(rowNum++);
+            String[] headers = { "Date", "Payeur", "Montant", "Catégorie", "Description" };
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+            }
+
+            // Payments data
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+            while (payments.hasNext()) {
+                PaymentExportRow payment = payments.next();
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(payment.paymentDate().format(formatter));
+                row.createCell(1).setCellValue(payment.paidByName());
+                Cell amountCell = row.createCell(2);
+                amountCell.setCellValue(payment.amount().doubleValue());
+                amountCell.setCellStyle(currencyStyle);
+                row.createCell(3).setCellValue(payment.category() != null ? payment.category().name() : "");
+                row.createCell(4).setCellValue(payment.description() != null ? payment.description() : "");
+            }
+
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void createRow(Sheet sheet, int rowNum, String label, BigDecimal value, CellStyle style) {
+        Row row = sheet.createRow(rowNum);
+        row.createCell(0).setCellValue(label);
+        Cell valueCell = row.createCell(1);
+        valueCell.setCellValue(value.doubleValue());
+        valueCell.setCellStyle(style);
+    }
+}
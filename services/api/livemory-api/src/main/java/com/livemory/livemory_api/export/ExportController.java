@@ -1,51 +1,90 @@
 package com.livemory.livemory_api.export;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/export")
 public class ExportController {
 
     private final BudgetExportService budgetExportService;
+    private final BudgetArchiveService budgetArchiveService;
+    private final ExportJobService exportJobService;
+    private final ExportFileSender exportFileSender;
 
-    public ExportController(BudgetExportService budgetExportService) {
+    public ExportController(BudgetExportService budgetExportService,
+            BudgetArchiveService budgetArchiveService,
+            ExportJobService exportJobService,
+            ExportFileSender exportFileSender) {
         this.budgetExportService = budgetExportService;
+        this.budgetArchiveService = budgetArchiveService;
+        this.exportJobService = exportJobService;
+        this.exportFileSender = exportFileSender;
     }
 
     @GetMapping("/budget/{eventId}")
-    public ResponseEntity<byte[]> exportBudget(
+    public ResponseEntity<StreamingResponseBody> exportBudget(
             @PathVariable Long eventId,
             @RequestParam(defaultValue = "CSV") ExportFormat format) {
 
-        byte[] data = budgetExportService.exportBudget(eventId, format);
-
-        String filename = "budget_event_" + eventId;
-        String contentType;
-        String extension;
-
-        switch (format) {
-            case CSV:
-                contentType = "text/csv";
-                extension = ".csv";
-                break;
-            case EXCEL:
-                contentType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-                extension = ".xlsx";
-                break;
-            case PDF:
-                contentType = "application/pdf";
-                extension = ".pdf";
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported format");
-        }
+        // Rendered on the MVC async executor, directly into the response output stream
+        StreamingResponseBody body = out -> budgetExportService.exportBudget(eventId, format, out);
+
+        String filename = "budget_event_" + eventId + format.getExtension();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
+    @GetMapping("/budgets/archive")
+    public ResponseEntity<StreamingResponseBody> exportBudgetArchive(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) List<Long> eventIds,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        List<Long> ids = budgetArchiveService.resolveEventIds(userId, eventIds);
+        StreamingResponseBody body = out -> budgetArchiveService.exportArchive(ids, format, out);
+
+        String filename = userId != null && (eventIds == null || eventIds.isEmpty())
+                ? "budgets_user_" + userId + ".zip"
+                : "budgets.zip";
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename + extension)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(data);
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    @PostMapping("/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ExportJobResponse submitExportJob(
+            @RequestParam Long eventId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return ExportJobResponse.from(exportJobService.submit(eventId, format));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ExportJobResponse getExportJob(@PathVariable String jobId) {
+        return ExportJobResponse.from(exportJobService.getJob(jobId));
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    public void downloadExportJob(@PathVariable String jobId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ExportJob job = exportJobService.getCompletedJob(jobId);
+        exportFileSender.send(job.getFile(), job.getFilename(), job.getFormat().getContentType(),
+                request, response);
     }
 }
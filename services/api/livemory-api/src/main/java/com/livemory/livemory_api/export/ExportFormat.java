@@ -1,7 +1,23 @@
 package com.livemory.livemory_api.export;
 
 public enum ExportFormat {
-    CSV,
-    EXCEL,
-    PDF
+    CSV("text/csv", ".csv"),
+    EXCEL("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", ".xlsx"),
+    PDF("application/pdf", ".pdf");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
 }
@@ -0,0 +1,89 @@
+package com.livemory.livemory_api.export;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * An export produced in the background into the spool directory. Jobs live in memory only;
+ * the id is an unguessable token and doubles as the download token.
+ */
+public class ExportJob {
+    private final String id;
+    private final Long eventId;
+    private final ExportFormat format;
+    private final String watermark;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile ExportJobStatus status = ExportJobStatus.PENDING;
+    private volatile Path file;
+    private volatile String error;
+    private volatile LocalDateTime completedAt;
+
+    public ExportJob(String id, Long eventId, ExportFormat format, String watermark) {
+        this.id = id;
+        this.eventId = eventId;
+        this.format = format;
+        this.watermark = watermark;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public ExportJobStatus getStatus() {
+        return status;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public String getFilename() {
+        return "budget_event_" + eventId + format.getExtension();
+    }
+
+    public boolean isCompleted() {
+        return status == ExportJobStatus.COMPLETED;
+    }
+
+    void markRunning() {
+        this.status = ExportJobStatus.RUNNING;
+    }
+
+    void markCompleted(Path file) {
+        this.file = file;
+        this.completedAt = LocalDateTime.now();
+        this.status = ExportJobStatus.COMPLETED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = ExportJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,29 @@
+package com.livemory.livemory_api.export;
+
+import java.time.LocalDateTime;
+
+public record ExportJobResponse(
+        String jobId,
+        Long eventId,
+        ExportFormat format,
+        ExportJobStatus status,
+        String downloadUrl, // null tant que le fichier n'est pas prêt
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt) {
+    public static ExportJobResponse from(ExportJob job) {
+        String downloadUrl = job.isCompleted()
+                ? "/api/v1/export/jobs/" + job.getId() + "/download"
+                : null;
+
+        return new ExportJobResponse(
+                job.getId(),
+                job.getEventId(),
+                job.getFormat(),
+                job.getStatus(),
+                downloadUrl,
+                job.getError(),
+                job.getCreatedAt(),
+                job.getCompletedAt());
+    }
+}
@@ -0,0 +1,221 @@
+package com.livemory.livemory_api.export;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs budget exports on a bounded worker pool and keeps the finished files in a spool directory.
+ * Only the latest job per event and format is kept: while the export watermark is unchanged,
+ * submitting again returns that job and its file instead of rebuilding it.
+ * <p>
+ * Finished jobs are forgotten after spool-max-age. Files of superseded or forgotten jobs are deleted
+ * by the first clean-up after download-grace, so a download that just looked the job up can still
+ * open its file. The
+ * spool directory may be shared by several instances: files are only ever removed by their owner,
+ * or by age once no instance can still be serving them.
+ */
+@Service
+public class ExportJobService {
+
+    private final BudgetExportService budgetExportService;
+    private final Path spoolDir;
+    private final Duration maxAge;
+    private final Duration downloadGrace;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ExportJob> jobsById = new ConcurrentHashMap<>();
+    private final Map<String, ExportJob> latestJobs = new ConcurrentHashMap<>(); // key: eventId:format
+    private final Map<Path, Instant> pendingDeletes = new ConcurrentHashMap<>(); // value: when it may go
+
+    public ExportJobService(BudgetExportService budgetExportService,
+            @Value("${app.export.spool-dir}") String spoolDir,
+            @Value("${app.export.worker-threads:2}") int workerThreads,
+            @Value("${app.export.queue-capacity:100}") int queueCapacity,
+            @Value("${app.export.spool-max-age:6h}") Duration maxAge,
+            @Value("${app.export.download-grace:10m}") Duration downloadGrace) {
+        this.budgetExportService = budgetExportService;
+        this.spoolDir = Paths.get(spoolDir).toAbsolutePath();
+        this.maxAge = maxAge;
+        this.downloadGrace = downloadGrace;
+        initSpoolDir(this.spoolDir);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public ExportJob submit(Long eventId, ExportFormat format) {
+        // Also validates that the event and its budget exist before anything is queued
+        String watermark = budgetExportService.exportWatermark(eventId);
+        String key = eventId + ":" + format;
+
+        synchronized (this) {
+            ExportJob latest = latestJobs.get(key);
+            if (latest != null && latest.getWatermark().equals(watermark)
+                    && latest.getStatus() != ExportJobStatus.FAILED) {
+                return latest;
+            }
+
+            ExportJob job = new ExportJob(UUID.randomUUID().toString().replace("-", ""), eventId, format, watermark);
+            try {
+                executor.execute(() -> run(job, key));
+            } catch (RejectedExecutionException e) {
+                throw new IllegalStateException("Too many exports in progress, try again later");
+            }
+
+            jobsById.put(job.getId(), job);
+            latestJobs.put(key, job);
+            if (latest != null) {
+                // A running job is cleaned up by its worker when it finishes
+                jobsById.remove(latest.getId());
+                deleteLater(latest.getFile());
+            }
+            return job;
+        }
+    }
+
+    public ExportJob getJob(String jobId) {
+        ExportJob job = jobsById.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Export job not found");
+        }
+        return job;
+    }
+
+    public ExportJob getCompletedJob(String jobId) {
+        ExportJob job = getJob(jobId);
+        if (!job.isCompleted()) {
+            throw new IllegalArgumentException("Export is not ready yet");
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Files whose deletion was still pending are removed by age on a later start
+        executor.shutdownNow();
+    }
+
+    /**
+     * Deletes the files whose download grace has passed and forgets finished jobs older than the
+     * maximum age, then deletes spool files that no job of this instance references and that are
+     * old enough that no other instance can still serve them.
+     */
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval:1m}")
+    void cleanUp() throws IOException {
+        Instant now = Instant.now();
+        pendingDeletes.forEach((file, deleteAt) -> {
+            if (!deleteAt.isAfter(now) && pendingDeletes.remove(file, deleteAt)) {
+                deleteQuietly(file);
+            }
+        });
+
+        // Taken first: files of jobs forgotten below are left to their delayed deletion
+        Set<Path> referenced = jobsById.values().stream()
+                .map(ExportJob::getFile)
+                .filter(file -> file != null)
+                .collect(Collectors.toSet());
+
+        LocalDateTime jobCutoff = LocalDateTime.now().minus(maxAge);
+        for (ExportJob job : jobsById.values()) {
+            if (job.getCompletedAt() != null && job.getCompletedAt().isBefore(jobCutoff)) {
+                synchronized (this) {
+                    jobsById.remove(job.getId());
+                    latestJobs.remove(job.getEventId() + ":" + job.getFormat(), job);
+                }
+                deleteLater(job.getFile());
+            }
+        }
+
+        FileTime fileCutoff = FileTime.from(Instant.now().minus(maxAge).minus(downloadGrace));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : files) {
+                if (!referenced.contains(file) && Files.isRegularFile(file)
+                        && Files.getLastModifiedTime(file).compareTo(fileCutoff) < 0) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private void run(ExportJob job, String key) {
+        job.markRunning();
+        Path partial = null;
+        try {
+            partial = Files.createTempFile(spoolDir, job.getId(), ".part");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                budgetExportService.exportBudget(job.getEventId(), job.getFormat(), out);
+            }
+            Path file = Files.move(partial, spoolDir.resolve(job.getId() + job.getFormat().getExtension()),
+                    StandardCopyOption.ATOMIC_MOVE);
+
+            synchronized (this) {
+                job.markCompleted(file);
+                if (latestJobs.get(key) != job) {
+                    // Superseded by a newer watermark while running
+                    deleteQuietly(file);
+                }
+            }
+        } catch (Exception e) {
+            deleteQuietly(partial);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private void deleteLater(Path file) {
+        if (file != null) {
+            pendingDeletes.put(file, Instant.now().plus(downloadGrace));
+        }
+    }
+
+    private static void initSpoolDir(Path spoolDir) {
+        // Files left by a previous run, or still served by another instance, are removed by age
+        try {
+            Files.createDirectories(spoolDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot initialize export spool directory " + spoolDir, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Removed by age on a later clean-up
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.livemory.livemory_api.export;
+
+public enum ExportJobStatus {
+    PENDING, // En file d'attente
+    RUNNING, // En cours de génération
+    COMPLETED, // Fichier prêt à télécharger
+    FAILED // Échec de la génération
+}
@@ -0,0 +1,110 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.budget.Budget;
+import com.livemory.livemory_api.event.Event;
+import com.livemory.livemory_api.payment.PaymentExportRow;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+@Component
+public class PdfBudgetExporter implements BudgetExporter {
+
+    // Rows added to the payment table before it is laid out; finished pages are then written and dropped
+    private static final int ROWS_PER_CHUNK = 40;
+    private static final float[] COLUMN_WIDTHS = { 3f, 4f, 2f, 2.5f, 6f };
+    private static final Color HEADER_BACKGROUND = new Color(230, 230, 230);
+
+    @Override
+    public ExportFormat format() {
+        return ExportFormat.PDF;
+    }
+
+    @Override
+    public void write(Event event, Budget budget, Iterator<PaymentExportRow> payments, OutputStream out)
+            throws IOException {
+        Font titleFont = new Font(Font.HELVETICA, 16, Font.BOLD);
+        Font headerFont = new Font(Font.HELVETICA, 9, Font.BOLD);
+        Font cellFont = new Font(Font.HELVETICA, 9, Font.NORMAL);
+
+        Document document = new Document(PageSize.A4, 36, 36, 36, 36);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        try {
+            // Title
+            Paragraph title = new Paragraph("Budget Export - " + event.getTitle(), titleFont);
+            title.setSpacingAfter(12);
+            document.add(title);
+
+            // Budget summary
+            PdfPTable summary = new PdfPTable(2);
+            summary.setWidthPercentage(50);
+            summary.setHorizontalAlignment(Element.ALIGN_LEFT);
+            summary.setSpacingAfter(12);
+            addSummaryRow(summary, "Budget Total", budget.getTotalBudget(), headerFont, cellFont);
+            addSummaryRow(summary, "Total Dépensé", budget.getTotalSpent(), headerFont, cellFont);
+            addSummaryRow(summary, "Reste", budget.getTotalBudget().subtract(budget.getTotalSpent()),
+                    headerFont, cellFont);
+            document.add(summary);
+
+            // Payments table, repeated header on every page
+            PdfPTable table = new PdfPTable(COLUMN_WIDTHS);
+            table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            table.setComplete(false);
+            for (String header : new String[] { "Date", "Payeur", "Montant", "Catégorie", "Description" }) {
+                PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
+                cell.setBackgroundColor(HEADER_BACKGROUND);
+                table.addCell(cell);
+            }
+
+            // Payments data
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+            int rows = 0;
+            while (payments.hasNext()) {
+                PaymentExportRow payment = payments.next();
+                table.addCell(new Phrase(payment.paymentDate().format(formatter), cellFont));
+                table.addCell(new Phrase(payment.paidByName(), cellFont));
+                PdfPCell amountCell = new PdfPCell(new Phrase(payment.amount().toString(), cellFont));
+                amountCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+                table.addCell(amountCell);
+                table.addCell(new Phrase(payment.category() != null ? payment.category().name() : "", cellFont));
+                table.addCell(new Phrase(payment.description() != null ? payment.description() : "", cellFont));
+
+                if (++rows % ROWS_PER_CHUNK == 0) {
+                    // An incomplete table only renders its finished rows and then releases them
+                    document.add(table);
+                    out.flush();
+                }
+            }
+
+            table.setComplete(true);
+            document.add(table);
+        } finally {
+            document.close();
+        }
+        out.flush();
+    }
+
+    private void addSummaryRow(PdfPTable table, String label, BigDecimal value, Font labelFont, Font valueFont) {
+        table.addCell(new Phrase(label, labelFont));
+        PdfPCell valueCell = new PdfPCell(new Phrase(value.toString(), valueFont));
+        valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(valueCell);
+    }
+}
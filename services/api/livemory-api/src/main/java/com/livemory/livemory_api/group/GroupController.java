@@ -26,9 +26,7 @@ public class GroupController {
 
     @GetMapping("/user/{userId}")
     public List<GroupResponse> getUserGroups(@PathVariable Long userId) {
-        return groupService.getUserGroups(userId).stream()
-                .map(GroupResponse::from)
-                .toList();
+        return groupService.getUserGroups(userId);
     }
 
     @GetMapping("/{id}")
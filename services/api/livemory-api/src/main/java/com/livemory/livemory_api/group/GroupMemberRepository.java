@@ -1,7 +1,11 @@
 package com.livemory.livemory_api.group;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,15 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, Long>
     Optional<GroupMember> findByGroupIdAndUserId(Long groupId, Long userId);
 
     boolean existsByGroupIdAndUserId(Long groupId, Long userId);
+
+    @Query("SELECT m.user.id FROM GroupMember m WHERE m.group.id = :groupId")
+    List<Long> findNotificationRecipientIdsByGroupId(@Param("groupId") Long groupId);
+
+    // Returns 0 when the user already is a member
+    @Modifying
+    @Query(value = "INSERT INTO group_members (group_id, user_id, role, joined_at) "
+            + "VALUES (:groupId, :userId, :role, :joinedAt) "
+            + "ON CONFLICT (group_id, user_id) DO NOTHING", nativeQuery = true)
+    int addMemberIfAbsent(@Param("groupId") Long groupId, @Param("userId") Long userId, @Param("role") String role,
+            @Param("joinedAt") LocalDateTime joinedAt);
 }
@@ -10,6 +10,13 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
 
     List<Group> findByCreatedById(Long createdById);
 
-    @Query("SELECT g FROM Group g JOIN g.members m WHERE m.user.id = :userId")
-    List<Group> findGroupsByUserId(@Param("userId") Long userId);
+    // Creator name and member count in the same query, instead of loading creator and members per group
+    @Query("SELECT new com.livemory.livemory_api.group.GroupResponse("
+            + "g.id, g.name, g.description, c.id, CONCAT(c.firstName, ' ', c.lastName), COUNT(m), "
+            + "g.createdAt, g.updatedAt) "
+            + "FROM Group g JOIN g.createdBy c JOIN g.members m "
+            + "WHERE g.id IN (SELECT um.group.id FROM GroupMember um WHERE um.user.id = :userId) "
+            + "GROUP BY g.id, g.name, g.description, c.id, c.firstName, c.lastName, g.createdAt, g.updatedAt "
+            + "ORDER BY g.id")
+    List<GroupResponse> findGroupResponsesByUserId(@Param("userId") Long userId);
 }
@@ -9,7 +9,7 @@ public record GroupResponse(
         String description,
         Long createdById,
         String createdByName,
-        int memberCount,
+        long memberCount,
         LocalDateTime createdAt,
         LocalDateTime updatedAt) {
     public static GroupResponse from(Group group) {
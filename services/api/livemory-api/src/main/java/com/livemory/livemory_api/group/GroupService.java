@@ -45,8 +45,8 @@ public class GroupService {
     }
 
     @Transactional(readOnly = true)
-    public List<Group> getUserGroups(Long userId) {
-        return groupRepository.findGroupsByUserId(userId);
+    public List<GroupResponse> getUserGroups(Long userId) {
+        return groupRepository.findGroupResponsesByUserId(userId);
     }
 
     @Transactional(readOnly = true)
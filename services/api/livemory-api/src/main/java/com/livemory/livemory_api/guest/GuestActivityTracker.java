@@ -0,0 +1,80 @@
+package com.livemory.livemory_api.guest;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind tracking of guest activity. Lookups only record the time in memory; a flusher writes
+ * the latest time of every active guest with one UPDATE ... FROM (VALUES ...) per chunk, so a
+ * guest opening many pages costs one row update per flush interval instead of one per request.
+ * last_active_at can lag by up to the flush interval, and activity recorded since the last flush is
+ * lost if the process crashes or the flush fails.
+ */
+@Component
+public class GuestActivityTracker {
+
+    private static final int FLUSH_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LocalDateTime> lastSeen = new ConcurrentHashMap<>();
+
+    public GuestActivityTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the recorded time.
+     */
+    public LocalDateTime record(Long guestId) {
+        LocalDateTime now = LocalDateTime.now();
+        lastSeen.merge(guestId, now, (current, next) -> next.isAfter(current) ? next : current);
+        return now;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Returns the number of guests written.
+     */
+    @Scheduled(fixedDelayString = "${app.guests.activity.flush-interval:30s}",
+            initialDelayString = "${app.guests.activity.flush-interval:30s}")
+    public int flush() {
+        List<Object[]> pending = new ArrayList<>(lastSeen.size());
+        for (Long guestId : lastSeen.keySet()) {
+            // Activity recorded after the removal stays in the map for the next flush
+            LocalDateTime seenAt = lastSeen.remove(guestId);
+            if (seenAt != null) {
+                pending.add(new Object[] { guestId, Timestamp.valueOf(seenAt) });
+            }
+        }
+        // Same row order in every instance, so concurrent flushes cannot deadlock
+        pending.sort((a, b) -> Long.compare((Long) a[0], (Long) b[0]));
+
+        for (int from = 0; from < pending.size(); from += FLUSH_CHUNK_SIZE) {
+            List<Object[]> chunk = pending.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, pending.size()));
+            String values = String.join(", ", Collections.nCopies(chunk.size(), "(?::bigint, ?::timestamp)"));
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i * 2] = chunk.get(i)[0];
+                args[i * 2 + 1] = chunk.get(i)[1];
+            }
+            jdbcTemplate.update("UPDATE guest_users g SET last_active_at = v.seen_at "
+                    + "FROM (VALUES " + values + ") AS v(id, seen_at) "
+                    + "WHERE g.id = v.id AND g.last_active_at < v.seen_at", args);
+        }
+        return pending.size();
+    }
+}
@@ -0,0 +1,20 @@
+package com.livemory.livemory_api.guest;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a guest request needs to know about its guest, cached by token. Only fields that do not
+ * change after creation, besides the conversion which invalidates the entry.
+ */
+public record GuestSession(
+        Long id,
+        String name,
+        Long convertedToUserId,
+        String email,
+        String phone,
+        LocalDateTime createdAt) {
+
+    public boolean isConverted() {
+        return convertedToUserId != null;
+    }
+}
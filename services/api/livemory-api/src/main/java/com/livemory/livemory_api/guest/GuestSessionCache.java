@@ -0,0 +1,80 @@
+package com.livemory.livemory_api.guest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Guest sessions by token, so resolving the guest of a request is a map lookup instead of a query
+ * on the guest_token index. Converting a guest on this instance invalidates its entry; the TTL
+ * bounds how long a conversion made on another instance can go unnoticed.
+ * <p>
+ * Unknown tokens are remembered for a short negative-ttl, so a client repeating a junk token costs
+ * one query per negative-ttl rather than one per request. Tokens are random, so a guest created on
+ * another instance cannot have been looked up before it existed.
+ */
+@Component
+public class GuestSessionCache {
+
+    private final LoadingCache<String, GuestSession> sessions;
+    private final Cache<String, Boolean> unknownTokens;
+
+    public GuestSessionCache(GuestUserRepository guestUserRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.guests.session-cache.max-size:50000}") long maxSize,
+            @Value("${app.guests.session-cache.ttl:10m}") Duration ttl,
+            @Value("${app.guests.session-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(token -> guestUserRepository.findSessionByGuestToken(token).orElse(null));
+        this.unknownTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "guests.sessions");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownTokens, "guests.unknown-tokens");
+    }
+
+    /**
+     * Returns null when no guest has this token.
+     */
+    public GuestSession get(String token) {
+        if (unknownTokens.getIfPresent(token) != null) {
+            return null;
+        }
+        GuestSession session = sessions.get(token);
+        if (session == null) {
+            unknownTokens.put(token, Boolean.TRUE);
+        }
+        return session;
+    }
+
+    public void invalidate(String token) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(token);
+                }
+            });
+        } else {
+            invalidateNow(token);
+        }
+    }
+
+    private void invalidateNow(String token) {
+        sessions.invalidate(token);
+        unknownTokens.invalidate(token);
+    }
+}
@@ -0,0 +1,49 @@
+package com.livemory.livemory_api.guest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resolves the guest of a request sent with an X-Guest-Token header once, before any handler runs,
+ * and exposes it as a request attribute. A request with an unknown token goes through without a
+ * session; handlers that need one reject it.
+ */
+@Component
+public class GuestSessionFilter extends OncePerRequestFilter {
+
+    public static final String GUEST_TOKEN_HEADER = "X-Guest-Token";
+    public static final String SESSION_ATTRIBUTE = GuestSession.class.getName();
+
+    private final GuestUserService guestUserService;
+
+    public GuestSessionFilter(GuestUserService guestUserService) {
+        this.guestUserService = guestUserService;
+    }
+
+    public static GuestSession currentSession(HttpServletRequest request) {
+        GuestSession session = (GuestSession) request.getAttribute(SESSION_ATTRIBUTE);
+        if (session == null) {
+            throw new IllegalArgumentException("Guest token required");
+        }
+        return session;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getHeader(GUEST_TOKEN_HEADER);
+        if (token != null && !token.isBlank()) {
+            GuestSession session = guestUserService.findSession(token);
+            if (session != null) {
+                request.setAttribute(SESSION_ATTRIBUTE, session);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
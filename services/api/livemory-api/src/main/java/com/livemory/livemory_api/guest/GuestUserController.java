@@ -1,5 +1,6 @@
 package com.livemory.livemory_api.guest;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -21,10 +22,16 @@ public class GuestUserController {
         return GuestUserResponse.from(guest);
     }
 
+    @GetMapping("/me")
+    public GuestUserResponse getCurrentGuest(HttpServletRequest request) {
+        // Rejects requests without a known guest token before the header is trusted
+        GuestSessionFilter.currentSession(request);
+        return guestUserService.getGuestResponse(request.getHeader(GuestSessionFilter.GUEST_TOKEN_HEADER));
+    }
+
     @GetMapping("/{token}")
     public GuestUserResponse getGuest(@PathVariable String token) {
-        GuestUser guest = guestUserService.getGuestByToken(token);
-        return GuestUserResponse.from(guest);
+        return guestUserService.getGuestResponse(token);
     }
 
     @PostMapping("/{token}/convert")
@@ -1,6 +1,8 @@
 package com.livemory.livemory_api.guest;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -8,6 +10,11 @@ public interface GuestUserRepository extends JpaRepository<GuestUser, Long> {
 
     Optional<GuestUser> findByGuestToken(String guestToken);
 
+    @Query("SELECT new com.livemory.livemory_api.guest.GuestSession("
+            + "g.id, g.name, u.id, g.email, g.phone, g.createdAt) "
+            + "FROM GuestUser g LEFT JOIN g.convertedToUser u WHERE g.guestToken = :guestToken")
+    Optional<GuestSession> findSessionByGuestToken(@Param("guestToken") String guestToken);
+
     Optional<GuestUser> findByEmail(String email);
 
     Optional<GuestUser> findByPhone(String phone);
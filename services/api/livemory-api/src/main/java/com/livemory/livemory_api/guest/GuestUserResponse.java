@@ -22,4 +22,16 @@ public record GuestUserResponse(
                 guest.getCreatedAt(),
                 guest.getLastActiveAt());
     }
+
+    public static GuestUserResponse from(GuestSession session, String guestToken, LocalDateTime lastActiveAt) {
+        return new GuestUserResponse(
+                session.id(),
+                guestToken,
+                session.name(),
+                session.email(),
+                session.phone(),
+                session.isConverted(),
+                session.createdAt(),
+                lastActiveAt);
+    }
 }
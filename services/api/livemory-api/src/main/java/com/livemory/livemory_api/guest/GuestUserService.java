@@ -5,6 +5,7 @@ import com.livemory.livemory_api.invitation.InvitationRepository;
 import com.livemory.livemory_api.user.User;
 import com.livemory.livemory_api.user.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
@@ -16,18 +17,24 @@ public class GuestUserService {
     private final GuestUserRepository guestUserRepository;
     private final InvitationRepository invitationRepository;
     private final UserRepository userRepository;
+    private final GuestActivityTracker activityTracker;
+    private final GuestSessionCache sessionCache;
 
     public GuestUserService(GuestUserRepository guestUserRepository,
             InvitationRepository invitationRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            GuestActivityTracker activityTracker,
+            GuestSessionCache sessionCache) {
         this.guestUserRepository = guestUserRepository;
         this.invitationRepository = invitationRepository;
         this.userRepository = userRepository;
+        this.activityTracker = activityTracker;
+        this.sessionCache = sessionCache;
     }
 
     public GuestUser createGuest(CreateGuestRequest request) {
         GuestUser guest = new GuestUser();
-        guest.setGuestToken(generateUniqueToken());
+        guest.setGuestToken(generateToken());
         guest.setName(request.name());
         guest.setEmail(request.email());
         guest.setPhone(request.phone());
@@ -38,7 +45,23 @@ public class GuestUserService {
             guest.setCreatedFromInvitation(invitation);
         }
 
-        return guestUserRepository.save(guest);
+        guest = guestUserRepository.save(guest);
+        // Drops a negative entry, should this token ever have been looked up before
+        sessionCache.invalidate(guest.getGuestToken());
+        return guest;
+    }
+
+    /**
+     * The guest's details from the session cache. The lookup is itself activity, so the guest was
+     * last active now; the last_active_at column lags behind by the tracker's flush interval.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public GuestUserResponse getGuestResponse(String token) {
+        GuestSession session = sessionCache.get(token);
+        if (session == null) {
+            throw new IllegalArgumentException("Guest user not found");
+        }
+        return GuestUserResponse.from(session, token, activityTracker.record(session.id()));
     }
 
     @Transactional(readOnly = true)
@@ -46,12 +69,33 @@ public class GuestUserService {
         GuestUser guest = guestUserRepository.findByGuestToken(token)
                 .orElseThrow(() -> new IllegalArgumentException("Guest user not found"));
 
-        guest.updateActivity();
-        guestUserRepository.save(guest);
-
+        // Written later by the tracker, this stays a pure read
+        activityTracker.record(guest.getId());
         return guest;
     }
 
+    /**
+     * Resolves a guest token from the session cache and records the guest as active. Returns null
+     * when no guest has this token.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public GuestSession findSession(String token) {
+        GuestSession session = sessionCache.get(token);
+        if (session != null) {
+            activityTracker.record(session.id());
+        }
+        return session;
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public GuestSession getSession(String token) {
+        GuestSession session = findSession(token);
+        if (session == null) {
+            throw new IllegalArgumentException("Guest user not found");
+        }
+        return session;
+    }
+
     public User convertToFullUser(String guestToken, String email, String password) {
         GuestUser guest = getGuestByToken(guestToken);
 
@@ -77,15 +121,13 @@ public class GuestUserService {
 
         guest.setConvertedToUser(user);
         guestUserRepository.save(guest);
+        sessionCache.invalidate(guestToken);
 
         return user;
     }
 
-    private String generateUniqueToken() {
-        String token;
-        do {
-            token = "guest_" + UUID.randomUUID().toString().replace("-", "");
-        } while (guestUserRepository.findByGuestToken(token).isPresent());
-        return token;
+    // 122 random bits: a collision is not expected, and the unique constraint on guest_token rejects one anyway
+    private String generateToken() {
+        return "guest_" + UUID.randomUUID().toString().replace("-", "");
     }
 }
@@ -0,0 +1,142 @@
+package com.livemory.livemory_api.guest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes guests that were never converted and have not been active for longer than the horizon,
+ * along with their notifications and pending deliveries. Each pass walks stale guests oldest first
+ * by (last_active_at, id) and deletes them in chunks, each in its own short transaction, pausing
+ * between chunks so the reaper never holds locks for long nor saturates the database. Rows are
+ * claimed with SKIP LOCKED, so every instance can run it.
+ */
+@Component
+public class StaleGuestReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleGuestReaper.class);
+
+    private static final String CLAIM_STALE = "SELECT id, guest_token, last_active_at FROM guest_users "
+            + "WHERE converted_to_user_id IS NULL AND last_active_at < ? AND (last_active_at, id) > (?, ?) "
+            + "ORDER BY last_active_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // The outbox lost its foreign key when notifications were partitioned, so nothing cascades to it
+    private static final String DELETE_OUTBOX = "DELETE FROM notification_outbox o USING notifications n "
+            + "WHERE o.notification_id = n.id AND n.guest_user_id = ANY (?)";
+
+    private static final String DELETE_NOTIFICATIONS = "DELETE FROM notifications WHERE guest_user_id = ANY (?)";
+
+    private static final String DELETE_GUESTS = "DELETE FROM guest_users WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GuestSessionCache sessionCache;
+    private final Duration horizon;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Counter guestsDeleted;
+    private final Counter notificationsDeleted;
+    private final Timer passTimer;
+
+    public StaleGuestReaper(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            GuestSessionCache sessionCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.guests.reaper.inactive-horizon:90d}") Duration horizon,
+            @Value("${app.guests.reaper.chunk-size:500}") int chunkSize,
+            @Value("${app.guests.reaper.chunk-pause:200ms}") Duration chunkPause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionCache = sessionCache;
+        this.horizon = horizon;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.guestsDeleted = meterRegistry.counter("guests.reaper.deleted");
+        this.notificationsDeleted = meterRegistry.counter("guests.reaper.notifications.deleted");
+        this.passTimer = meterRegistry.timer("guests.reaper.pass");
+    }
+
+    /**
+     * Returns the number of guests deleted.
+     */
+    public int reap() throws InterruptedException {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(horizon));
+        Cursor cursor = new Cursor(new Timestamp(0), 0L);
+        int total = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            Cursor after = cursor;
+            ChunkResult chunk = transactionTemplate.execute(status -> deleteChunk(cutoff, after));
+            total += chunk.deleted();
+            if (chunk.next() == null) {
+                break;
+            }
+            cursor = chunk.next();
+            Thread.sleep(chunkPause.toMillis());
+        }
+        return total;
+    }
+
+    private ChunkResult deleteChunk(Timestamp cutoff, Cursor after) {
+        List<StaleGuest> stale = jdbcTemplate.query(CLAIM_STALE,
+                (rs, rowNum) -> new StaleGuest(rs.getLong("id"), rs.getString("guest_token"),
+                        rs.getTimestamp("last_active_at")),
+                cutoff, after.lastActiveAt(), after.id(), chunkSize);
+        if (stale.isEmpty()) {
+            return new ChunkResult(0, null);
+        }
+
+        Long[] ids = stale.stream().map(StaleGuest::id).toArray(Long[]::new);
+        jdbcTemplate.update(DELETE_OUTBOX, (Object) ids);
+        int notifications = jdbcTemplate.update(DELETE_NOTIFICATIONS, (Object) ids);
+        int guests = jdbcTemplate.update(DELETE_GUESTS, (Object) ids);
+
+        stale.forEach(guest -> sessionCache.invalidate(guest.token()));
+        notificationsDeleted.increment(notifications);
+        guestsDeleted.increment(guests);
+
+        StaleGuest last = stale.get(stale.size() - 1);
+        // A short chunk means nothing stale is left past the cursor, except rows another instance holds
+        Cursor next = stale.size() < chunkSize ? null : new Cursor(last.lastActiveAt(), last.id());
+        return new ChunkResult(guests, next);
+    }
+
+    @Scheduled(fixedDelayString = "${app.guests.reaper.interval:1h}",
+            initialDelayString = "${app.guests.reaper.interval:1h}")
+    void reapStale() {
+        long start = System.nanoTime();
+        try {
+            int deleted = reap();
+            if (deleted > 0) {
+                log.info("Deleted {} guests inactive for more than {}", deleted, horizon);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            passTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record StaleGuest(Long id, String token, Timestamp lastActiveAt) {
+    }
+
+    private record Cursor(Timestamp lastActiveAt, Long id) {
+    }
+
+    private record ChunkResult(int deleted, Cursor next) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.livemory.livemory_api.invitation;
+
+/**
+ * Target of an invitation that was just accepted, as returned by InvitationRepository.acceptPending.
+ */
+public interface AcceptedInvitation {
+
+    Long getGroupId();
+
+    Long getEventId();
+
+    String getRole();
+}
@@ -0,0 +1,55 @@
+package com.livemory.livemory_api.invitation;
+
+import com.opencsv.CSVReader;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the invitees of a CSV upload lazily: email in the first column, phone in the second, an
+ * optional header row and blank lines skipped.
+ */
+final class BulkInvitationCsv {
+
+    private BulkInvitationCsv() {
+    }
+
+    static Iterator<BulkInvitee> invitees(CSVReader csv) {
+        Iterator<String[]> lines = csv.iterator();
+        return new Iterator<>() {
+            private String[] next = advance(true);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public BulkInvitee next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String[] line = next;
+                next = advance(false);
+                return new BulkInvitee(column(line, 0), column(line, 1));
+            }
+
+            private String[] advance(boolean first) {
+                while (lines.hasNext()) {
+                    String[] line = lines.next();
+                    boolean blank = line.length == 0 || (line.length == 1 && line[0].isBlank());
+                    boolean header = first && line.length > 0 && "email".equalsIgnoreCase(line[0].trim());
+                    if (!blank && !header) {
+                        return line;
+                    }
+                    first = false;
+                }
+                return null;
+            }
+        };
+    }
+
+    private static String column(String[] line, int index) {
+        return index < line.length && !line[index].isBlank() ? line[index] : null;
+    }
+}
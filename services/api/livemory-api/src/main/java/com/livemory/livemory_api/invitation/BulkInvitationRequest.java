@@ -0,0 +1,14 @@
+package com.livemory.livemory_api.invitation;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BulkInvitationRequest(
+        Long groupId,
+        Long eventId,
+        @NotNull(message = "Invited by user ID is required") Long invitedById,
+        String role,
+        Integer expiresInDays, // Durée de validité en jours (défaut: 7)
+        @NotNull(message = "Invitees are required") List<BulkInvitee> invitees) {
+}
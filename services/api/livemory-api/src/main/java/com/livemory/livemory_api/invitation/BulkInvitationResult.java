@@ -0,0 +1,11 @@
+package com.livemory.livemory_api.invitation;
+
+public record BulkInvitationResult(
+        int row, // Numéro de ligne, à partir de 1
+        String email,
+        String phone,
+        BulkInvitationStatus status,
+        String token,
+        String invitationLink,
+        String error) {
+}
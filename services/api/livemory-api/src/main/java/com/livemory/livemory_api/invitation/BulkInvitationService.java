@@ -0,0 +1,237 @@
+package com.livemory.livemory_api.invitation;
+
+import com.livemory.livemory_api.event.EventRepository;
+import com.livemory.livemory_api.group.GroupRepository;
+import com.livemory.livemory_api.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Invites a whole contact list to a group or event. Rows are read as a stream and handled in
+ * chunks: each chunk is checked against the pending invitations of the target in one query and
+ * inserted with one JDBC batch in its own transaction, then its results are handed back, so memory
+ * use does not grow with the size of the list and results can be streamed to the client.
+ */
+@Service
+public class BulkInvitationService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE_SEPARATORS = Pattern.compile("[\\s.\\-()]");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9]{6,15}$");
+
+    private static final String INSERT_INVITATION = "INSERT INTO invitations "
+            + "(token, group_id, event_id, invited_by_id, invited_email, invited_phone, role, status, expires_at, "
+            + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, 'PENDING', ?, ?)";
+
+    private final InvitationRepository invitationRepository;
+    private final GroupRepository groupRepository;
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final InvitationTokenFilter tokenFilter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String baseUrl;
+    private final int chunkSize;
+    private final int maxRows;
+
+    public BulkInvitationService(InvitationRepository invitationRepository,
+            GroupRepository groupRepository,
+            EventRepository eventRepository,
+            UserRepository userRepository,
+            InvitationTokenFilter tokenFilter,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.base-url:http://localhost:8080}") String baseUrl,
+            @Value("${app.invitations.bulk.chunk-size:500}") int chunkSize,
+            @Value("${app.invitations.bulk.max-rows:10000}") int maxRows) {
+        this.invitationRepository = invitationRepository;
+        this.groupRepository = groupRepository;
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.tokenFilter = tokenFilter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.baseUrl = baseUrl;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+    }
+
+    public BulkInvitationTarget resolveTarget(Long groupId, Long eventId, Long invitedById, String role,
+            Integer expiresInDays) {
+        if ((groupId == null) == (eventId == null)) {
+            throw new IllegalArgumentException("Exactly one of groupId or eventId must be provided");
+        }
+        if (invitedById == null || !userRepository.existsById(invitedById)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (groupId != null && !groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found");
+        }
+        if (eventId != null && !eventRepository.existsById(eventId)) {
+            throw new IllegalArgumentException("Event not found");
+        }
+        return new BulkInvitationTarget(groupId, eventId, invitedById, role != null ? role : "MEMBER",
+                LocalDateTime.now().plusDays(expiresInDays != null ? expiresInDays : 7));
+    }
+
+    /**
+     * Creates one invitation per new invitee and hands back the results of every row, one chunk at
+     * a time and in row order. A row is a duplicate when its email (case-insensitive) or phone
+     * already has a pending invitation to the target, or appeared earlier in the list. At most
+     * max-rows rows are read: a longer list ends with a single INVALID result for the rest of it.
+     */
+    public void createInvitations(BulkInvitationTarget target, Iterator<BulkInvitee> invitees,
+            Consumer<List<BulkInvitationResult>> chunkResults) {
+        Set<String> seen = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        int rowNumber = 0;
+        boolean truncated = false;
+        while (invitees.hasNext()) {
+            if (rowNumber == maxRows) {
+                truncated = true;
+                break;
+            }
+            BulkInvitee invitee = invitees.next();
+            rowNumber++;
+            chunk.add(new Row(rowNumber, normalizeEmail(invitee.email()), normalizePhone(invitee.phone()), invitee));
+            if (chunk.size() == chunkSize) {
+                chunkResults.accept(processChunk(target, chunk, seen));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkResults.accept(processChunk(target, chunk, seen));
+        }
+        if (truncated) {
+            chunkResults.accept(List.of(new BulkInvitationResult(maxRows + 1, null, null, BulkInvitationStatus.INVALID,
+                    null, null, "Too many rows (max " + maxRows + "), the rest of the list was not read")));
+        }
+    }
+
+    private List<BulkInvitationResult> processChunk(BulkInvitationTarget target, List<Row> chunk, Set<String> seen) {
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (Row row : chunk) {
+            if (row.email() != null) {
+                emails.add(row.email());
+            }
+            if (row.phone() != null) {
+                phones.add(row.phone());
+            }
+        }
+        if (emails.isEmpty() && phones.isEmpty()) {
+            // Nothing to insert, no need for a transaction
+            return check(target, chunk, seen, Set.of(), new ArrayList<>());
+        }
+
+        return transactionTemplate.execute(status -> {
+            Set<String> pending = new HashSet<>();
+            // Already normalized by the query, like the keys of the rows
+            findPendingInvitees(target, emails, phones).forEach(invitee -> {
+                if (invitee.email() != null) {
+                    pending.add(emailKey(invitee.email()));
+                }
+                if (invitee.phone() != null) {
+                    pending.add(phoneKey(invitee.phone()));
+                }
+            });
+
+            List<Object[]> inserts = new ArrayList<>(chunk.size());
+            List<BulkInvitationResult> results = check(target, chunk, seen, pending, inserts);
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_INVITATION, inserts);
+                inserts.forEach(insert -> tokenFilter.add((String) insert[0]));
+            }
+            return results;
+        });
+    }
+
+    // Decides the outcome of every row and fills in the inserts for the new invitations
+    private List<BulkInvitationResult> check(BulkInvitationTarget target, List<Row> chunk, Set<String> seen,
+            Set<String> pending, List<Object[]> inserts) {
+        List<BulkInvitationResult> results = new ArrayList<>(chunk.size());
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        for (Row row : chunk) {
+            if (row.email() == null && row.phone() == null) {
+                results.add(rejected(row, BulkInvitationStatus.INVALID, "A valid email or phone is required"));
+                continue;
+            }
+            String emailKey = emailKey(row.email());
+            String phoneKey = phoneKey(row.phone());
+            if ((emailKey != null && pending.contains(emailKey)) || (phoneKey != null && pending.contains(phoneKey))) {
+                results.add(rejected(row, BulkInvitationStatus.DUPLICATE, "Already invited"));
+                continue;
+            }
+            // Non-short-circuit |: both keys of the row must be recorded
+            if ((emailKey != null && !seen.add(emailKey)) | (phoneKey != null && !seen.add(phoneKey))) {
+                results.add(rejected(row, BulkInvitationStatus.DUPLICATE, "Duplicate row"));
+                continue;
+            }
+
+            // Same token format as InvitationService, the UNIQUE constraint backs it up
+            String token = UUID.randomUUID().toString().replace("-", "");
+            inserts.add(new Object[] { token, target.groupId(), target.eventId(), target.invitedById(),
+                    row.email(), row.phone(), target.role(), Timestamp.valueOf(target.expiresAt()), createdAt });
+            results.add(new BulkInvitationResult(row.rowNumber(), row.source().email(), row.source().phone(),
+                    BulkInvitationStatus.CREATED, token, baseUrl + "/invitations/" + token, null));
+        }
+        return results;
+    }
+
+    private List<BulkInvitee> findPendingInvitees(BulkInvitationTarget target, Set<String> emails, Set<String> phones) {
+        // An empty IN list is not valid SQL, an empty string matches no normalized value
+        Set<String> emailParam = emails.isEmpty() ? Set.of("") : emails;
+        Set<String> phoneParam = phones.isEmpty() ? Set.of("") : phones;
+        return target.groupId() != null
+                ? invitationRepository.findPendingGroupInvitees(target.groupId(), emailParam, phoneParam)
+                : invitationRepository.findPendingEventInvitees(target.eventId(), emailParam, phoneParam);
+    }
+
+    private static BulkInvitationResult rejected(Row row, BulkInvitationStatus status, String error) {
+        return new BulkInvitationResult(row.rowNumber(), row.source().email(), row.source().phone(), status, null,
+                null, error);
+    }
+
+    private static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        return EMAIL.matcher(normalized).matches() ? normalized : null;
+    }
+
+    private static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String normalized = PHONE_SEPARATORS.matcher(phone.trim()).replaceAll("");
+        return PHONE.matcher(normalized).matches() ? normalized : null;
+    }
+
+    // Emails and phones share the dedup sets
+    private static String emailKey(String email) {
+        return email != null ? "e:" + email.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String phoneKey(String phone) {
+        return phone != null ? "p:" + phone : null;
+    }
+
+    private record Row(int rowNumber, String email, String phone, BulkInvitee source) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.livemory.livemory_api.invitation;
+
+public enum BulkInvitationStatus {
+    CREATED, // Invitation créée
+    DUPLICATE, // Déjà invité (invitation en attente ou ligne en double)
+    INVALID // Ligne sans email ni téléphone valide
+}
@@ -0,0 +1,14 @@
+package com.livemory.livemory_api.invitation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inviter and target of a bulk invitation, resolved once before any row is read.
+ */
+public record BulkInvitationTarget(
+        Long groupId,
+        Long eventId,
+        Long invitedById,
+        String role,
+        LocalDateTime expiresAt) {
+}
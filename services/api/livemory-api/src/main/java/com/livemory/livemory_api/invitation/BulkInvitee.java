@@ -0,0 +1,4 @@
+package com.livemory.livemory_api.invitation;
+
+public record BulkInvitee(String email, String phone) {
+}
@@ -0,0 +1,76 @@
+package com.livemory.livemory_api.invitation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Recently opened invitations by token, so a shared link opened many times is read once. An entry
+ * never outlives its invitation's expiry, so it is reloaded when it expires. Accepting or declining
+ * on this instance invalidates it; the TTL bounds how long a change made on another instance can go
+ * unnoticed.
+ */
+@Component
+public class InvitationCache {
+
+    private final Cache<String, InvitationResponse> invitations;
+
+    public InvitationCache(MeterRegistry meterRegistry,
+            @Value("${app.invitations.cache.max-size:10000}") long maxSize,
+            @Value("${app.invitations.cache.ttl:30s}") Duration ttl) {
+        this.invitations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, InvitationResponse>() {
+                    @Override
+                    public long expireAfterCreate(String token, InvitationResponse invitation, long currentTime) {
+                        if (invitation.status() != InvitationStatus.PENDING) {
+                            return ttl.toNanos();
+                        }
+                        Duration untilExpiry = Duration.between(LocalDateTime.now(), invitation.expiresAt());
+                        return Math.max(0, (untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, InvitationResponse invitation, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, InvitationResponse invitation, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, invitations, "invitations.by-token");
+    }
+
+    public InvitationResponse get(String token, Supplier<InvitationResponse> loader) {
+        return invitations.get(token, key -> loader.get());
+    }
+
+    public void invalidate(String token) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invitations.invalidate(token);
+                }
+            });
+        } else {
+            invitations.invalidate(token);
+        }
+    }
+}
@@ -1,23 +1,42 @@
 package com.livemory.livemory_api.invitation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVReader;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/invitations")
 public class InvitationController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final InvitationService invitationService;
+    private final BulkInvitationService bulkInvitationService;
+    private final ObjectMapper objectMapper;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
-    public InvitationController(InvitationService invitationService) {
+    public InvitationController(InvitationService invitationService,
+            BulkInvitationService bulkInvitationService,
+            ObjectMapper objectMapper) {
         this.invitationService = invitationService;
+        this.bulkInvitationService = bulkInvitationService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -27,10 +46,41 @@ public class InvitationController {
         return InvitationResponse.from(invitation, baseUrl);
     }
 
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> createBulkInvitations(
+            @Valid @RequestBody BulkInvitationRequest request) {
+        BulkInvitationTarget target = bulkInvitationService.resolveTarget(request.groupId(), request.eventId(),
+                request.invitedById(), request.role(), request.expiresInDays());
+        return bulkResponse(out -> bulkInvitationService.createInvitations(target, request.invitees().iterator(),
+                results -> writeResults(results, out)));
+    }
+
+    /**
+     * Same as the JSON variant for a CSV upload with an email and a phone column (header row
+     * optional). The upload is read while results are written, never held in memory, and no further
+     * than max-rows.
+     */
+    @PostMapping(path = "/bulk", consumes = "text/csv", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> importInvitationsCsv(
+            @RequestParam(required = false) Long groupId,
+            @RequestParam(required = false) Long eventId,
+            @RequestParam Long invitedById,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Integer expiresInDays,
+            HttpServletRequest request) {
+        BulkInvitationTarget target = bulkInvitationService.resolveTarget(groupId, eventId, invitedById, role,
+                expiresInDays);
+        return bulkResponse(out -> {
+            try (CSVReader csv = new CSVReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+                bulkInvitationService.createInvitations(target, BulkInvitationCsv.invitees(csv),
+                        results -> writeResults(results, out));
+            }
+        });
+    }
+
     @GetMapping("/{token}")
     public InvitationResponse getInvitation(@PathVariable String token) {
-        Invitation invitation = invitationService.getInvitationByToken(token);
-        return InvitationResponse.from(invitation, baseUrl);
+        return invitationService.getInvitationResponse(token);
     }
 
     @PostMapping("/accept")
@@ -64,4 +114,23 @@ public class InvitationController {
                 .map(inv -> InvitationResponse.from(inv, baseUrl))
                 .toList();
     }
+
+    private static ResponseEntity<StreamingResponseBody> bulkResponse(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    // One JSON document per line, flushed per chunk so the client sees progress
+    private void writeResults(List<BulkInvitationResult> results, OutputStream out) {
+        try {
+            for (BulkInvitationResult result : results) {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -1,12 +1,29 @@
 package com.livemory.livemory_api.invitation;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface InvitationRepository extends JpaRepository<Invitation, Long> {
 
+    // Single invitations store emails and phones as typed: they are normalized here the same way
+    // BulkInvitationService normalizes the rows, and returned normalized
+    String NORMALIZED_EMAIL = "LOWER(TRIM(i.invitedEmail))";
+    String NORMALIZED_PHONE = "CAST(FUNCTION('regexp_replace', i.invitedPhone, '[\\s.()-]', '', 'g') AS String)";
+
+    String PENDING_INVITEES = "SELECT new com.livemory.livemory_api.invitation.BulkInvitee("
+            + NORMALIZED_EMAIL + ", " + NORMALIZED_PHONE + ") "
+            + "FROM Invitation i "
+            + "WHERE i.status = com.livemory.livemory_api.invitation.InvitationStatus.PENDING "
+            + "AND i.expiresAt > CURRENT_TIMESTAMP "
+            + "AND (" + NORMALIZED_EMAIL + " IN :emails OR " + NORMALIZED_PHONE + " IN :phones) ";
+
     Optional<Invitation> findByToken(String token);
 
     List<Invitation> findByGroupId(Long groupId);
@@ -18,4 +35,26 @@ public interface InvitationRepository extends JpaRepository<Invitation, Long> {
     List<Invitation> findByInvitedPhone(String phone);
 
     List<Invitation> findByStatus(InvitationStatus status);
+
+    @Query(PENDING_INVITEES + "AND i.group.id = :groupId")
+    List<BulkInvitee> findPendingGroupInvitees(@Param("groupId") Long groupId,
+            @Param("emails") Collection<String> emails, @Param("phones") Collection<String> phones);
+
+    @Query(PENDING_INVITEES + "AND i.event.id = :eventId")
+    List<BulkInvitee> findPendingEventInvitees(@Param("eventId") Long eventId,
+            @Param("emails") Collection<String> emails, @Param("phones") Collection<String> phones);
+
+    // Accepts the invitation only if it is still pending and valid; empty when it was not
+    @Query(value = "UPDATE invitations SET status = 'ACCEPTED', accepted_at = :now, accepted_by_id = :userId "
+            + "WHERE token = :token AND status = 'PENDING' AND expires_at > :now "
+            + "RETURNING group_id AS \"groupId\", event_id AS \"eventId\", role AS \"role\"", nativeQuery = true)
+    Optional<AcceptedInvitation> acceptPending(@Param("token") String token, @Param("userId") Long userId,
+            @Param("now") LocalDateTime now);
+
+    // At most :limit rows per call, skipping rows another transaction is changing
+    @Modifying
+    @Query(value = "UPDATE invitations SET status = 'EXPIRED' WHERE id IN ("
+            + "SELECT id FROM invitations WHERE status = 'PENDING' AND expires_at < :now "
+            + "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int expirePending(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
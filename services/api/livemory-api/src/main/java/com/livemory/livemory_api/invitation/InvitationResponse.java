@@ -41,7 +41,10 @@ public record InvitationResponse(
                 invitation.getInvitedEmail(),
                 invitation.getInvitedPhone(),
                 invitation.getRole(),
-                invitation.getStatus(),
+                // Until the sweeper catches up with it
+                invitation.getStatus() == InvitationStatus.PENDING && invitation.isExpired()
+                        ? InvitationStatus.EXPIRED
+                        : invitation.getStatus(),
                 invitation.getExpiresAt(),
                 invitation.getCreatedAt());
     }
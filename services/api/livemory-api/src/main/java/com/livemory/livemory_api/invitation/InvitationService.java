@@ -3,19 +3,21 @@ package com.livemory.livemory_api.invitation;
 import com.livemory.livemory_api.event.Event;
 import com.livemory.livemory_api.event.EventRepository;
 import com.livemory.livemory_api.group.Group;
-import com.livemory.livemory_api.group.GroupMember;
 import com.livemory.livemory_api.group.GroupMemberRepository;
 import com.livemory.livemory_api.group.GroupRepository;
 import com.livemory.livemory_api.group.GroupRole;
-import com.livemory.livemory_api.participant.Participant;
 import com.livemory.livemory_api.participant.ParticipantRepository;
+import com.livemory.livemory_api.participant.ParticipantRole;
 import com.livemory.livemory_api.user.User;
 import com.livemory.livemory_api.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -28,19 +30,28 @@ public class InvitationService {
     private final UserRepository userRepository;
     private final GroupMemberRepository groupMemberRepository;
     private final ParticipantRepository participantRepository;
+    private final InvitationTokenFilter tokenFilter;
+    private final InvitationCache invitationCache;
+    private final String baseUrl;
 
     public InvitationService(InvitationRepository invitationRepository,
             GroupRepository groupRepository,
             EventRepository eventRepository,
             UserRepository userRepository,
             GroupMemberRepository groupMemberRepository,
-            ParticipantRepository participantRepository) {
+            ParticipantRepository participantRepository,
+            InvitationTokenFilter tokenFilter,
+            InvitationCache invitationCache,
+            @Value("${app.base-url:http://localhost:8080}") String baseUrl) {
         this.invitationRepository = invitationRepository;
         this.groupRepository = groupRepository;
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.groupMemberRepository = groupMemberRepository;
         this.participantRepository = participantRepository;
+        this.tokenFilter = tokenFilter;
+        this.invitationCache = invitationCache;
+        this.baseUrl = baseUrl;
     }
 
     public Invitation createInvitation(CreateInvitationRequest request) {
@@ -48,7 +59,7 @@ public class InvitationService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         Invitation invitation = new Invitation();
-        invitation.setToken(generateUniqueToken());
+        invitation.setToken(generateToken());
         invitation.setInvitedBy(invitedBy);
         invitation.setInvitedEmail(request.invitedEmail());
         invitation.setInvitedPhone(request.invitedPhone());
@@ -68,82 +79,91 @@ public class InvitationService {
             invitation.setEvent(event);
         }
 
-        return invitationRepository.save(invitation);
+        Invitation saved = invitationRepository.save(invitation);
+        tokenFilter.add(saved.getToken());
+        return saved;
     }
 
+    /**
+     * The invitation behind a shared link, served from InvitationCache when it was opened recently.
+     */
     @Transactional(readOnly = true)
-    public Invitation getInvitationByToken(String token) {
-        Invitation invitation = invitationRepository.findByToken(token)
-                .orElseThrow(() -> new IllegalArgumentException("Invitation not found"));
-
-        if (invitation.isExpired() && invitation.getStatus() == InvitationStatus.PENDING) {
-            invitation.setStatus(InvitationStatus.EXPIRED);
-            invitationRepository.save(invitation);
+    public InvitationResponse getInvitationResponse(String token) {
+        if (!tokenFilter.mightExist(token)) {
+            throw new IllegalArgumentException("Invitation not found");
         }
-
-        return invitation;
+        return invitationCache.get(token, () -> InvitationResponse.from(getInvitationByToken(token), baseUrl));
     }
 
-    public void acceptInvitation(AcceptInvitationRequest request) {
-        Invitation invitation = getInvitationByToken(request.token());
-
-        if (invitation.getStatus() != InvitationStatus.PENDING) {
-            throw new IllegalArgumentException("Invitation is not pending");
+    @Transactional(readOnly = true)
+    public Invitation getInvitationByToken(String token) {
+        if (!tokenFilter.mightExist(token)) {
+            throw new IllegalArgumentException("Invitation not found");
         }
+        // Expired invitations are marked by ExpirySweeper, this stays a pure read
+        return invitationRepository.findByToken(token)
+                .orElseThrow(() -> new IllegalArgumentException("Invitation not found"));
+    }
 
-        if (invitation.isExpired()) {
-            invitation.setStatus(InvitationStatus.EXPIRED);
-            invitationRepository.save(invitation);
-            throw new IllegalArgumentException("Invitation has expired");
+    /**
+     * Accepts the invitation and adds the user to its group or event. Safe under concurrent clicks:
+     * the PENDING to ACCEPTED transition is a single conditional UPDATE that only one caller can win,
+     * and the membership is inserted with ON CONFLICT DO NOTHING. Accepting again as the user who
+     * already accepted is a no-op.
+     */
+    public void acceptInvitation(AcceptInvitationRequest request) {
+        if (!tokenFilter.mightExist(request.token())) {
+            throw new IllegalArgumentException("Invitation not found");
         }
 
-        User acceptedBy = null;
-        if (request.userId() != null) {
-            acceptedBy = userRepository.findById(request.userId())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        LocalDateTime now = LocalDateTime.now();
+        Optional<AcceptedInvitation> accepted;
+        try {
+            accepted = invitationRepository.acceptPending(request.token(), request.userId(), now);
+        } catch (DataIntegrityViolationException e) {
+            // accepted_by_id references users
+            throw new IllegalArgumentException("User not found");
         }
 
-        invitation.setStatus(InvitationStatus.ACCEPTED);
-        invitation.setAcceptedAt(LocalDateTime.now());
-        invitation.setAcceptedBy(acceptedBy);
-
-        if (invitation.getGroup() != null && acceptedBy != null) {
-            // Add to group
-            if (!groupMemberRepository.existsByGroupIdAndUserId(
-                    invitation.getGroup().getId(), acceptedBy.getId())) {
-                GroupMember member = new GroupMember();
-                member.setGroup(invitation.getGroup());
-                member.setUser(acceptedBy);
-                member.setRole(GroupRole.valueOf(invitation.getRole()));
-                groupMemberRepository.save(member);
+        if (accepted.isEmpty()) {
+            Invitation invitation = getInvitationByToken(request.token());
+            if (invitation.getStatus() == InvitationStatus.ACCEPTED && request.userId() != null
+                    && invitation.getAcceptedBy() != null
+                    && request.userId().equals(invitation.getAcceptedBy().getId())) {
+                return;
             }
-        } else if (invitation.getEvent() != null && acceptedBy != null) {
-            // Add to event
-            if (!participantRepository.existsByEventIdAndUserId(
-                    invitation.getEvent().getId(), acceptedBy.getId())) {
-                Participant participant = new Participant();
-                participant.setEvent(invitation.getEvent());
-                participant.setUser(acceptedBy);
-                // Map invitation role to ParticipantRole
-                com.livemory.livemory_api.participant.ParticipantRole participantRole = "ORGANIZER"
-                        .equals(invitation.getRole()) ? com.livemory.livemory_api.participant.ParticipantRole.ORGANIZER
-                                : com.livemory.livemory_api.participant.ParticipantRole.PARTICIPANT;
-                participant.setRole(participantRole);
-                participantRepository.save(participant);
+            if (invitation.getStatus() == InvitationStatus.PENDING) {
+                throw new IllegalArgumentException("Invitation has expired");
             }
+            throw new IllegalArgumentException("Invitation is not pending");
         }
+        invitationCache.invalidate(request.token());
 
-        invitationRepository.save(invitation);
+        AcceptedInvitation target = accepted.get();
+        if (request.userId() == null) {
+            return;
+        }
+        if (target.getGroupId() != null) {
+            groupMemberRepository.addMemberIfAbsent(target.getGroupId(), request.userId(),
+                    GroupRole.valueOf(target.getRole()).name(), now);
+        } else {
+            ParticipantRole role = "ORGANIZER".equals(target.getRole())
+                    ? ParticipantRole.ORGANIZER
+                    : ParticipantRole.PARTICIPANT;
+            participantRepository.addEventParticipantIfAbsent(target.getEventId(), request.userId(), role.name(),
+                    now);
+        }
     }
 
     public void declineInvitation(String token) {
         Invitation invitation = getInvitationByToken(token);
 
-        if (invitation.getStatus() != InvitationStatus.PENDING) {
+        if (invitation.getStatus() != InvitationStatus.PENDING || invitation.isExpired()) {
             throw new IllegalArgumentException("Invitation is not pending");
         }
 
         invitation.setStatus(InvitationStatus.DECLINED);
+        invitationCache.invalidate(token);
         invitationRepository.save(invitation);
     }
 
@@ -162,11 +182,8 @@ public class InvitationService {
         return invitationRepository.findByEventId(eventId);
     }
 
-    private String generateUniqueToken() {
-        String token;
-        do {
-            token = UUID.randomUUID().toString().replace("-", "");
-        } while (invitationRepository.findByToken(token).isPresent());
-        return token;
+    // 122 random bits: a collision is not expected, and the unique constraint on token rejects one anyway
+    private String generateToken() {
+        return UUID.randomUUID().toString().replace("-", "");
     }
 }
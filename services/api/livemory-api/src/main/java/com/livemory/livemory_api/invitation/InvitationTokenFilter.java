@@ -0,0 +1,118 @@
+package com.livemory.livemory_api.invitation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Answers "can this invitation token exist?" without a database round trip, so floods of invalid
+ * tokens (bots, link previews, guessing) are rejected in memory. Every token is loaded into a Bloom
+ * filter on first use. Tokens created here are added as they are created. Tokens created by other
+ * instances are picked up by an incremental reload, at most once per refresh interval and only
+ * when a token is not found. A miss within the interval is checked on the token index instead, at
+ * most max-miss-lookups times per interval.
+ * <p>
+ * A new link therefore works on every instance right away, unless that instance is flooded with
+ * unknown tokens beyond the lookup budget: then it can be reported missing until the next reload,
+ * at most one refresh interval later. A flood costs at most one reload and max-miss-lookups
+ * indexed queries per interval.
+ */
+@Component
+public class InvitationTokenFilter {
+
+    // Covers clock skew between instances and transactions committing after their created_at
+    private static final Duration RELOAD_OVERLAP = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenBloomFilter tokens;
+    private final long refreshIntervalNanos;
+    private final int maxMissLookups;
+
+    private volatile boolean loaded;
+    private volatile long lastRefresh;
+    private LocalDateTime loadedUntil;
+    private long lookupWindowStart;
+    private int lookupsInWindow;
+
+    public InvitationTokenFilter(JdbcTemplate jdbcTemplate,
+            @Value("${app.invitations.token-filter.expected-tokens:1000000}") long expectedTokens,
+            @Value("${app.invitations.token-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${app.invitations.token-filter.refresh-interval:1s}") Duration refreshInterval,
+            @Value("${app.invitations.token-filter.max-miss-lookups:50}") int maxMissLookups) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokens = new TokenBloomFilter(expectedTokens, falsePositiveRate);
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.maxMissLookups = maxMissLookups;
+        this.lookupWindowStart = System.nanoTime() - refreshIntervalNanos;
+    }
+
+    public boolean mightExist(String token) {
+        if (!loaded) {
+            reload(true);
+        }
+        if (tokens.mightContain(token)) {
+            return true;
+        }
+        boolean reloaded = reload(false);
+        // Another thread may have reloaded in the meantime
+        if (tokens.mightContain(token)) {
+            return true;
+        }
+        return !reloaded && lookUp(token);
+    }
+
+    public void add(String token) {
+        tokens.put(token);
+    }
+
+    // Returns false when throttled
+    private synchronized boolean reload(boolean initial) {
+        if (initial ? loaded : System.nanoTime() - lastRefresh < refreshIntervalNanos) {
+            return false;
+        }
+        LocalDateTime start = LocalDateTime.now();
+        if (loadedUntil == null) {
+            jdbcTemplate.query("SELECT token FROM invitations", row -> {
+                tokens.put(row.getString(1));
+            });
+        } else {
+            jdbcTemplate.query("SELECT token FROM invitations WHERE created_at >= ?", row -> {
+                tokens.put(row.getString(1));
+            }, Timestamp.valueOf(loadedUntil.minus(RELOAD_OVERLAP)));
+        }
+        loadedUntil = start;
+        lastRefresh = System.nanoTime();
+        loaded = true;
+        return true;
+    }
+
+    private boolean lookUp(String token) {
+        if (!acquireLookup()) {
+            return false;
+        }
+        Boolean exists = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM invitations WHERE token = ?)",
+                Boolean.class, token);
+        if (Boolean.TRUE.equals(exists)) {
+            tokens.put(token);
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized boolean acquireLookup() {
+        long now = System.nanoTime();
+        if (now - lookupWindowStart >= refreshIntervalNanos) {
+            lookupWindowStart = now;
+            lookupsInWindow = 0;
+        }
+        if (lookupsInWindow >= maxMissLookups) {
+            return false;
+        }
+        lookupsInWindow++;
+        return true;
+    }
+}
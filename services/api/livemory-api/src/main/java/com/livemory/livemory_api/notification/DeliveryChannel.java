@@ -0,0 +1,6 @@
+package com.livemory.livemory_api.notification;
+
+public enum DeliveryChannel {
+    EMAIL,
+    PUSH
+}
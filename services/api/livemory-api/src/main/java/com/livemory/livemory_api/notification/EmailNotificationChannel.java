@@ -0,0 +1,27 @@
+package com.livemory.livemory_api.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for the email provider: logs the message instead of sending it.
+ */
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailNotificationChannel.class);
+
+    @Override
+    public DeliveryChannel channel() {
+        return DeliveryChannel.EMAIL;
+    }
+
+    @Override
+    public void deliver(NotificationDelivery delivery) {
+        if (delivery.email() == null) {
+            throw new IllegalStateException("Recipient has no email address");
+        }
+        log.info("Email to {}: {}", delivery.email(), delivery.title());
+    }
+}
@@ -0,0 +1,21 @@
+package com.livemory.livemory_api.notification;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record FanOutNotificationRequest(
+        Long eventId,
+        Long groupId,
+        @NotNull(message = "Type is required") NotificationType type,
+        @NotBlank(message = "Title is required") String title,
+        @NotBlank(message = "Message is required") String message,
+        String relatedEntityType,
+        Long relatedEntityId,
+        String actionUrl) {
+
+    @AssertTrue(message = "Exactly one of eventId or groupId must be provided")
+    public boolean isSingleTarget() {
+        return (eventId == null) != (groupId == null);
+    }
+}
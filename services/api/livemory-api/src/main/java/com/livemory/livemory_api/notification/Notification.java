@@ -39,6 +39,9 @@ public class Notification {
     @Column(name = "action_url")
     private String actionUrl;
 
+    @Column(name = "digest_count", nullable = false)
+    private Integer digestCount = 1;
+
     @Column(name = "is_read", nullable = false)
     private Boolean isRead = false;
 
@@ -124,6 +127,14 @@ public class Notification {
         this.actionUrl = actionUrl;
     }
 
+    public Integer getDigestCount() {
+        return digestCount;
+    }
+
+    public void setDigestCount(Integer digestCount) {
+        this.digestCount = digestCount;
+    }
+
     public Boolean getIsRead() {
         return isRead;
     }
@@ -0,0 +1,22 @@
+package com.livemory.livemory_api.notification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published once by NotificationBatchWriter for a whole batch of user notifications, instead of one
+ * NotificationCreatedEvent each; listeners act on it once the transaction has committed.
+ * {@code ids} holds the id of each notification, in the same order.
+ */
+public record NotificationBatchCreatedEvent(
+        List<PendingNotification> notifications,
+        List<Long> ids,
+        LocalDateTime createdAt) {
+
+    public NotificationResponse response(int index) {
+        PendingNotification notification = notifications.get(index);
+        return new NotificationResponse(ids.get(index), notification.type(), notification.title(),
+                notification.message(), notification.relatedEntityType(), notification.relatedEntityId(),
+                notification.actionUrl(), notification.digestCount(), false, false, createdAt);
+    }
+}
@@ -0,0 +1,129 @@
+package com.livemory.livemory_api.notification;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes many user notifications and their outbox rows with PostgreSQL COPY, in chunks, instead of
+ * one JPA save each. Ids are drawn from the sequence up front so outbox rows can reference their
+ * notification without reading keys back. Unread counters are adjusted in one pass after commit,
+ * and stream listeners get a single NotificationBatchCreatedEvent for the whole batch.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class NotificationBatchWriter {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final DeliveryChannel[] CHANNELS = DeliveryChannel.values();
+
+    private static final String NEXT_IDS = "SELECT nextval('notifications_id_seq') FROM generate_series(1, ?)";
+
+    private static final String COPY_NOTIFICATIONS = "COPY notifications "
+            + "(id, user_id, type, title, message, related_entity_type, related_entity_id, action_url, "
+            + "digest_count, created_at) FROM STDIN";
+
+    private static final String COPY_OUTBOX = "COPY notification_outbox "
+            + "(notification_id, channel, next_attempt_at, created_at) FROM STDIN";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadCountCache unreadCountCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NotificationBatchWriter(JdbcTemplate jdbcTemplate,
+            UnreadCountCache unreadCountCache,
+            ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unreadCountCache = unreadCountCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void write(List<PendingNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(notifications.size());
+        Map<Long, Long> unreadDeltas = new HashMap<>();
+        for (int from = 0; from < notifications.size(); from += BATCH_SIZE) {
+            List<PendingNotification> chunk = notifications.subList(from,
+                    Math.min(from + BATCH_SIZE, notifications.size()));
+            List<Long> chunkIds = jdbcTemplate.queryForList(NEXT_IDS, Long.class, chunk.size());
+            copy(chunk, chunkIds, now);
+            ids.addAll(chunkIds);
+            chunk.forEach(notification -> unreadDeltas.merge(notification.userId(), 1L, Long::sum));
+        }
+        unreadCountCache.adjustAll(unreadDeltas);
+        eventPublisher.publishEvent(new NotificationBatchCreatedEvent(List.copyOf(notifications), ids, now));
+    }
+
+    private void copy(List<PendingNotification> chunk, List<Long> ids, LocalDateTime now) {
+        // COPY text format: tab-separated columns, one row per line, \N for null
+        StringBuilder notifications = new StringBuilder(chunk.size() * 128);
+        StringBuilder outbox = new StringBuilder(chunk.size() * 96);
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingNotification notification = chunk.get(i);
+            Long id = ids.get(i);
+            notifications.append(id).append('\t').append(notification.userId()).append('\t')
+                    .append(notification.type().name()).append('\t');
+            appendText(notifications, notification.title()).append('\t');
+            appendText(notifications, notification.message()).append('\t');
+            appendText(notifications, notification.relatedEntityType()).append('\t');
+            appendText(notifications, notification.relatedEntityId() != null
+                    ? notification.relatedEntityId().toString() : null).append('\t');
+            appendText(notifications, notification.actionUrl()).append('\t')
+                    .append(notification.digestCount()).append('\t').append(now).append('\n');
+            for (DeliveryChannel channel : CHANNELS) {
+                if (!NotificationPreferenceFlags.sends(notification.preferences(), channel)) {
+                    continue;
+                }
+                outbox.append(id).append('\t').append(channel.name()).append('\t')
+                        .append(now).append('\t').append(now).append('\n');
+            }
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copyManager.copyIn(COPY_NOTIFICATIONS, new StringReader(notifications.toString()));
+                if (!outbox.isEmpty()) {
+                    copyManager.copyIn(COPY_OUTBOX, new StringReader(outbox.toString()));
+                }
+            } catch (IOException e) {
+                throw new SQLException("COPY of notifications failed", e);
+            }
+            return null;
+        });
+    }
+
+    private static StringBuilder appendText(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+        return out;
+    }
+}
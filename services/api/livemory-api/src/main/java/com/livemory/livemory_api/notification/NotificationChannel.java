@@ -0,0 +1,12 @@
+package com.livemory.livemory_api.notification;
+
+/**
+ * Delivers notifications through one external channel. Implementations are called from the
+ * dispatcher's worker threads and signal a failed delivery by throwing; it is retried later.
+ */
+public interface NotificationChannel {
+
+    DeliveryChannel channel();
+
+    void deliver(NotificationDelivery delivery) throws Exception;
+}
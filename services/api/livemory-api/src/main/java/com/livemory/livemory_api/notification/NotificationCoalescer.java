@@ -0,0 +1,180 @@
+package com.livemory.livemory_api.notification;
+
+import com.livemory.livemory_api.user.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Buffers user notifications about the same entity and writes them as one digest row. The first
+ * notification for a (user, type, related entity) opens a window; notifications arriving before it
+ * closes only bump the digest count and replace the title, message and link with the latest ones.
+ * Closed windows are written together in one transaction through NotificationBatchWriter, so a
+ * burst costs one row and one delivery per user instead of one per notification.
+ * <p>
+ * Digests whose write fails are merged back into the buffer and retried on the next flush, up to
+ * MAX_WRITE_ATTEMPTS times. A submit that fills the buffer up to max-buffered flushes it on the
+ * caller's thread, which holds producers back until the backlog is written. Buffered notifications
+ * only live in memory: they are flushed on shutdown but lost if the process crashes. Notifications without a related entity, and guest
+ * notifications, are not buffered.
+ */
+@Service
+public class NotificationCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationCoalescer.class);
+    static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final NotificationService notificationService;
+    private final NotificationBatchWriter batchWriter;
+    private final NotificationPreferencesCache preferencesCache;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int maxBuffered;
+
+    private final Map<DigestKey, Digest> buffer = new ConcurrentHashMap<>();
+    private final AtomicBoolean overflowFlushing = new AtomicBoolean();
+
+    public NotificationCoalescer(NotificationService notificationService,
+            NotificationBatchWriter batchWriter,
+            NotificationPreferencesCache preferencesCache,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.notifications.digest.window:30s}") Duration window,
+            @Value("${app.notifications.digest.max-buffered:10000}") int maxBuffered) {
+        this.notificationService = notificationService;
+        this.batchWriter = batchWriter;
+        this.preferencesCache = preferencesCache;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowNanos = window.toNanos();
+        this.maxBuffered = maxBuffered;
+    }
+
+    /**
+     * Returns true when the notification was buffered, false when it was written right away.
+     */
+    public boolean submit(CreateNotificationRequest request) {
+        if (request.userId() == null || request.relatedEntityType() == null || request.relatedEntityId() == null) {
+            notificationService.createNotification(request);
+            return false;
+        }
+        if (!userRepository.existsById(request.userId())) {
+            throw new IllegalArgumentException("User not found");
+        }
+
+        long now = System.nanoTime();
+        buffer.merge(DigestKey.of(request), new Digest(request, 1, now, 0),
+                (current, next) -> new Digest(request, current.count() + 1, current.openedAt(), current.attempts()));
+
+        if (buffer.size() >= maxBuffered && overflowFlushing.compareAndSet(false, true)) {
+            try {
+                flush(true);
+            } finally {
+                overflowFlushing.set(false);
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.digest.flush-interval:1s}",
+            initialDelayString = "${app.notifications.digest.flush-interval:1s}")
+    void flushClosed() {
+        flush(false);
+    }
+
+    /**
+     * Writes the digests whose window has closed, or all of them.
+     */
+    void flush(boolean all) {
+        List<Digest> closed = new ArrayList<>();
+        try {
+            long now = System.nanoTime();
+            for (DigestKey key : buffer.keySet()) {
+                // Removed under the key's lock, so a concurrent merge either lands before or opens a new window
+                buffer.computeIfPresent(key, (k, digest) -> {
+                    if (all || now - digest.openedAt() >= windowNanos) {
+                        closed.add(digest);
+                        return null;
+                    }
+                    return digest;
+                });
+            }
+            if (!closed.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> write(closed));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Notification digest flush failed, {} digests requeued", closed.size(), e);
+            requeue(closed);
+        }
+    }
+
+    /**
+     * Puts digests that could not be written back in the buffer. A digest opened meanwhile for the
+     * same key keeps its latest content and absorbs the count; the older window start is kept so it
+     * is retried on the next flush.
+     */
+    private void requeue(List<Digest> failed) {
+        for (Digest digest : failed) {
+            int attempts = digest.attempts() + 1;
+            if (attempts >= MAX_WRITE_ATTEMPTS) {
+                log.error("Dropping digest of {} notifications for user {} after {} failed writes",
+                        digest.count(), digest.request().userId(), attempts);
+                continue;
+            }
+            buffer.merge(DigestKey.of(digest.request()),
+                    new Digest(digest.request(), digest.count(), digest.openedAt(), attempts),
+                    (current, requeued) -> new Digest(current.request(), current.count() + requeued.count(),
+                            requeued.openedAt(), requeued.attempts()));
+        }
+    }
+
+    private void write(List<Digest> digests) {
+        // Users deleted while their notifications were buffered drop out here
+        Map<Long, Integer> recipients = new HashMap<>();
+        preferencesCache.forEachRecipient(digests.stream().map(digest -> digest.request().userId())
+                .distinct()
+                .toList(), recipients::put);
+
+        List<PendingNotification> notifications = new ArrayList<>(digests.size());
+        for (Digest digest : digests) {
+            CreateNotificationRequest request = digest.request();
+            Integer flags = recipients.get(request.userId());
+            if (flags != null) {
+                notifications.add(new PendingNotification(request.userId(), request.type(), request.title(),
+                        request.message(), request.relatedEntityType(), request.relatedEntityId(),
+                        request.actionUrl(), digest.count(), flags));
+            }
+        }
+        batchWriter.write(notifications);
+    }
+
+    private record DigestKey(Long userId, NotificationType type, String relatedEntityType, Long relatedEntityId) {
+
+        static DigestKey of(CreateNotificationRequest request) {
+            return new DigestKey(request.userId(), request.type(), request.relatedEntityType(),
+                    request.relatedEntityId());
+        }
+    }
+
+    private record Digest(CreateNotificationRequest request, int count, long openedAt, int attempts) {
+    }
+}
@@ -1,9 +1,13 @@
 package com.livemory.livemory_api.notification;
 
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -11,9 +15,18 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
+    private final NotificationFanOutService notificationFanOutService;
+    private final NotificationCoalescer notificationCoalescer;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+            NotificationStreamService notificationStreamService,
+            NotificationFanOutService notificationFanOutService,
+            NotificationCoalescer notificationCoalescer) {
         this.notificationService = notificationService;
+        this.notificationStreamService = notificationStreamService;
+        this.notificationFanOutService = notificationFanOutService;
+        this.notificationCoalescer = notificationCoalescer;
     }
 
     @PostMapping
@@ -23,11 +36,23 @@ public class NotificationController {
         return NotificationResponse.from(notification);
     }
 
+    @PostMapping("/fan-out")
+    @ResponseStatus(HttpStatus.CREATED)
+    public int fanOutNotification(@Valid @RequestBody FanOutNotificationRequest request) {
+        return notificationFanOutService.fanOut(request);
+    }
+
+    @PostMapping("/buffered")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void createBufferedNotification(@Valid @RequestBody CreateNotificationRequest request) {
+        notificationCoalescer.submit(request);
+    }
+
     @GetMapping("/user/{userId}")
-    public List<NotificationResponse> getUserNotifications(@PathVariable Long userId) {
-        return notificationService.getUserNotifications(userId).stream()
-                .map(NotificationResponse::from)
-                .toList();
+    public NotificationPage getUserNotifications(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return notificationService.getUserNotifications(userId, cursor, size);
     }
 
     @GetMapping("/user/{userId}/unread")
@@ -42,6 +67,16 @@ public class NotificationController {
         return notificationService.getUnreadCount(userId);
     }
 
+    @GetMapping(path = "/stream/user/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserNotifications(@PathVariable Long userId) {
+        return notificationStreamService.subscribeUser(userId);
+    }
+
+    @GetMapping(path = "/stream/guest/{guestToken}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGuestNotifications(@PathVariable String guestToken) {
+        return notificationStreamService.subscribeGuest(guestToken);
+    }
+
     @PutMapping("/{id}/read")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void markAsRead(@PathVariable Long id) {
@@ -49,9 +84,16 @@ public class NotificationController {
     }
 
     @PutMapping("/user/{userId}/read-all")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void markAllAsRead(@PathVariable Long userId) {
-        notificationService.markAllAsRead(userId);
+    public int markAllAsRead(@PathVariable Long userId) {
+        return notificationService.markAllAsRead(userId);
+    }
+
+    @PutMapping("/user/{userId}/read")
+    public int markUserNotificationsAsRead(@PathVariable Long userId,
+            @RequestParam(required = false) Long fromId,
+            @RequestParam(required = false) Long toId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+        return notificationService.markUserNotificationsAsRead(userId, fromId, toId, until);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,11 @@
+package com.livemory.livemory_api.notification;
+
+/**
+ * Published by NotificationService when a notification is saved; listeners act on it once the
+ * transaction has committed.
+ */
+public record NotificationCreatedEvent(
+        Long userId,
+        Long guestUserId,
+        NotificationResponse notification) {
+}
@@ -0,0 +1,18 @@
+package com.livemory.livemory_api.notification;
+
+/**
+ * Everything a channel needs to deliver one notification, read in a single query from the outbox.
+ * Exactly one of userId and guestUserId is set; email is the recipient's address, if known.
+ */
+public record NotificationDelivery(
+        Long outboxId,
+        Long notificationId,
+        DeliveryChannel channel,
+        Integer attempts,
+        Long userId,
+        Long guestUserId,
+        String email,
+        String title,
+        String message,
+        String actionUrl) {
+}
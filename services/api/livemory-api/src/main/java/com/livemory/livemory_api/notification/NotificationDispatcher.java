@@ -0,0 +1,211 @@
+package com.livemory.livemory_api.notification;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the notification outbox. Each poll claims a batch of due rows with
+ * FOR UPDATE SKIP LOCKED and leases them by moving next_attempt_at forward, so any number of API
+ * instances can poll the same table without sending a row twice. The batch is delivered on a worker
+ * pool outside any transaction; delivered rows are then deleted and their notifications marked sent
+ * in bulk, failed rows are rescheduled with exponential backoff. Rows of a crashed instance become
+ * due again when their lease expires.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<DeliveryChannel, NotificationChannel> channels = new EnumMap<>(DeliveryChannel.class);
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final ExecutorService workers;
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+            NotificationRepository notificationRepository,
+            PlatformTransactionManager transactionManager,
+            List<NotificationChannel> channels,
+            @Value("${app.notifications.dispatch.enabled:true}") boolean enabled,
+            @Value("${app.notifications.dispatch.batch-size:100}") int batchSize,
+            @Value("${app.notifications.dispatch.worker-threads:4}") int workerThreads,
+            @Value("${app.notifications.dispatch.lease:5m}") Duration lease,
+            @Value("${app.notifications.dispatch.max-attempts:8}") int maxAttempts,
+            @Value("${app.notifications.dispatch.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${app.notifications.dispatch.max-backoff:1h}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        channels.forEach(channel -> this.channels.put(channel.channel(), channel));
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-delivery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.dispatch.poll-interval:1s}",
+            initialDelayString = "${app.notifications.dispatch.poll-interval:1s}")
+    void poll() {
+        if (enabled) {
+            dispatchDue();
+        }
+    }
+
+    /**
+     * Delivers due rows until a batch comes back short. If it throws, the rows it claimed are
+     * retried once their lease ends.
+     */
+    void dispatchDue() {
+        // A full batch means more rows are probably due, keep going without waiting
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    private int dispatchBatch() {
+        List<NotificationDelivery> batch = transactionTemplate.execute(status -> claim());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Callable<String>> tasks = new ArrayList<>(batch.size());
+        for (NotificationDelivery delivery : batch) {
+            tasks.add(() -> deliver(delivery));
+        }
+
+        List<Future<String>> results;
+        try {
+            // Finish well within the lease, so no other instance picks these rows up meanwhile
+            results = workers.invokeAll(tasks, lease.toMillis() / 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> complete(batch, results));
+        return batch.size();
+    }
+
+    private List<NotificationDelivery> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxRepository.lockDueIds(now, batchSize);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        outboxRepository.lease(ids, now.plus(lease));
+        List<NotificationDelivery> deliveries = outboxRepository.findDeliveries(ids);
+
+        if (deliveries.size() < ids.size()) {
+            // Their notification was deleted or its partition dropped: nothing left to send
+            List<Long> orphans = new ArrayList<>(ids);
+            deliveries.forEach(delivery -> orphans.remove(delivery.outboxId()));
+            outboxRepository.deleteByIdIn(orphans);
+        }
+        return deliveries;
+    }
+
+    /**
+     * Returns null when delivered, otherwise the reason it was not.
+     */
+    private String deliver(NotificationDelivery delivery) {
+        NotificationChannel channel = channels.get(delivery.channel());
+        if (channel == null) {
+            return "No adapter for channel " + delivery.channel();
+        }
+        try {
+            channel.deliver(delivery);
+            return null;
+        } catch (Exception e) {
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+    private void complete(List<NotificationDelivery> batch, List<Future<String>> results) {
+        List<Long> delivered = new ArrayList<>();
+        List<Long> notificationIds = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationDelivery delivery = batch.get(i);
+            String error = outcome(results.get(i));
+            if (error == null) {
+                delivered.add(delivery.outboxId());
+                notificationIds.add(delivery.notificationId());
+            } else if (delivery.attempts() >= maxAttempts) {
+                outboxRepository.markFailed(delivery.outboxId(), truncate(error));
+            } else {
+                outboxRepository.scheduleRetry(delivery.outboxId(), now.plus(backoff(delivery.attempts())),
+                        truncate(error));
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            outboxRepository.deleteByIdIn(delivered);
+            notificationRepository.markSentWhereDelivered(notificationIds, now);
+        }
+    }
+
+    private static String outcome(Future<String> result) {
+        try {
+            return result.get();
+        } catch (CancellationException e) {
+            return "Delivery timed out";
+        } catch (ExecutionException e) {
+            return e.getCause().toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted";
+        }
+    }
+
+    // initialBackoff, then doubled after each failed attempt, up to maxBackoff
+    private Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,54 @@
+package com.livemory.livemory_api.notification;
+
+import com.livemory.livemory_api.group.GroupMemberRepository;
+import com.livemory.livemory_api.participant.ParticipantRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the same notification for every member of an event or group. Recipient preferences come
+ * from NotificationPreferencesCache, then everything is written through NotificationBatchWriter.
+ */
+@Service
+@Transactional
+public class NotificationFanOutService {
+
+    private final ParticipantRepository participantRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final NotificationPreferencesCache preferencesCache;
+    private final NotificationBatchWriter batchWriter;
+
+    public NotificationFanOutService(ParticipantRepository participantRepository,
+            GroupMemberRepository groupMemberRepository,
+            NotificationPreferencesCache preferencesCache,
+            NotificationBatchWriter batchWriter) {
+        this.participantRepository = participantRepository;
+        this.groupMemberRepository = groupMemberRepository;
+        this.preferencesCache = preferencesCache;
+        this.batchWriter = batchWriter;
+    }
+
+    /**
+     * Returns the number of notifications created, after leaving out recipients whose preferences
+     * turn this type of notification off.
+     */
+    public int fanOut(FanOutNotificationRequest request) {
+        List<Long> userIds = request.eventId() != null
+                ? participantRepository.findNotificationRecipientIdsByEventId(request.eventId())
+                : groupMemberRepository.findNotificationRecipientIdsByGroupId(request.groupId());
+
+        List<PendingNotification> notifications = new ArrayList<>(userIds.size());
+        preferencesCache.forEachRecipient(userIds, (userId, flags) -> {
+            if (NotificationPreferenceFlags.accepts(flags, request.type())) {
+                notifications.add(new PendingNotification(userId, request.type(), request.title(),
+                        request.message(), request.relatedEntityType(), request.relatedEntityId(),
+                        request.actionUrl(), 1, flags));
+            }
+        });
+        batchWriter.write(notifications);
+        return notifications.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.livemory.livemory_api.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Rows locked by another instance are skipped rather than waited for
+    @Query(value = "SELECT id FROM notification_outbox "
+            + "WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Pushes the claimed rows out of the due window, so they stay claimed after the lock is released
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil "
+            + "WHERE o.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT new com.livemory.livemory_api.notification.NotificationDelivery("
+            + "o.id, n.id, o.channel, o.attempts, u.id, g.id, COALESCE(u.email, g.email), "
+            + "n.title, n.message, n.actionUrl) "
+            + "FROM NotificationOutbox o JOIN o.notification n LEFT JOIN n.user u LEFT JOIN n.guestUser g "
+            + "WHERE o.id IN :ids")
+    List<NotificationDelivery> findDeliveries(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.notification.id = :notificationId")
+    int deleteByNotificationId(@Param("notificationId") Long notificationId);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = com.livemory.livemory_api.notification.OutboxStatus.FAILED, "
+            + "o.lastError = :error WHERE o.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+}
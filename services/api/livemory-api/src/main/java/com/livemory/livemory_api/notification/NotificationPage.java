@@ -0,0 +1,12 @@
+package com.livemory.livemory_api.notification;
+
+import java.util.List;
+
+/**
+ * One page of notifications, newest first. Pass {@code nextCursor} back as {@code cursor} to get the
+ * following page; it is null on the last page.
+ */
+public record NotificationPage(
+        List<NotificationResponse> items,
+        String nextCursor) {
+}
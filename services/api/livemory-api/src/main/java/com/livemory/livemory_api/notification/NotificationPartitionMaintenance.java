@@ -0,0 +1,100 @@
+package com.livemory.livemory_api.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of notifications in shape: creates the coming months ahead of time
+ * and applies the retention policy by dropping or archiving whole expired partitions, never by
+ * deleting rows. Runs at startup and then periodically; an advisory lock keeps concurrent
+ * instances from doing it twice.
+ */
+@Component
+public class NotificationPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPartitionMaintenance.class);
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCountCache unreadCountCache;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final RetentionMode retentionMode;
+
+    public NotificationPartitionMaintenance(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            UnreadCountCache unreadCountCache,
+            @Value("${app.notifications.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${app.notifications.retention.months:12}") int retentionMonths,
+            @Value("${app.notifications.retention.mode:DROP}") RetentionMode retentionMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unreadCountCache = unreadCountCache;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionMode = retentionMode;
+    }
+
+    /**
+     * Returns the partitions removed by the retention policy.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.partitions.maintenance-interval:24h}")
+    public List<String> run() {
+        List<String> expired = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(hashtext('notification_partition_maintenance'))", Boolean.class);
+            if (!Boolean.TRUE.equals(locked)) {
+                return List.of();
+            }
+
+            YearMonth current = YearMonth.now();
+            for (int i = 0; i <= monthsAhead; i++) {
+                jdbcTemplate.queryForObject("SELECT create_notifications_partition(?)", Boolean.class,
+                        Date.valueOf(current.plusMonths(i).atDay(1)));
+            }
+            return retentionMonths > 0 ? removeExpired(current.minusMonths(retentionMonths)) : List.of();
+        });
+
+        if (!expired.isEmpty()) {
+            // Removed notifications may have been unread
+            unreadCountCache.invalidateAll();
+        }
+        return expired;
+    }
+
+    // Partitions whose whole month is before the cutoff month
+    private List<String> removeExpired(YearMonth cutoff) {
+        String oldestKept = "notifications_p" + cutoff.format(PARTITION_MONTH);
+        List<String> expired = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'notifications'::regclass "
+                        + "AND c.relname ~ '^notifications_p[0-9]{6}$' AND c.relname < ? ORDER BY c.relname",
+                String.class, oldestKept);
+
+        for (String partition : expired) {
+            // Names come from pg_class and match notifications_pYYYYMM, so they are safe to inline
+            jdbcTemplate.update("DELETE FROM notification_outbox o USING " + partition
+                    + " n WHERE o.notification_id = n.id");
+            jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + partition);
+            if (retentionMode == RetentionMode.ARCHIVE) {
+                jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA notifications_archive");
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+            log.info("Notification partition {} removed ({})", partition, retentionMode);
+        }
+        return expired;
+    }
+}
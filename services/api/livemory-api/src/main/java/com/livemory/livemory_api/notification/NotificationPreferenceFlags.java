@@ -0,0 +1,56 @@
+package com.livemory.livemory_api.notification;
+
+/**
+ * The seven NotificationPreferences flags packed into one int, one bit per flag. A user without
+ * saved preferences has every bit set.
+ */
+public final class NotificationPreferenceFlags {
+
+    public static final int EMAIL = 1;
+    public static final int PUSH = 1 << 1;
+    public static final int EVENT_REMINDERS = 1 << 2;
+    public static final int TASK_ASSIGNMENTS = 1 << 3;
+    public static final int VOTE_NOTIFICATIONS = 1 << 4;
+    public static final int BUDGET_ALERTS = 1 << 5;
+    public static final int GROUP_INVITATIONS = 1 << 6;
+    public static final int ALL = (1 << 7) - 1;
+
+    private NotificationPreferenceFlags() {
+    }
+
+    // Same packing as NotificationPreferencesRepository.PREFERENCE_FLAGS
+    public static int of(NotificationPreferences preferences) {
+        return bit(preferences.getEmailEnabled(), EMAIL)
+                | bit(preferences.getPushEnabled(), PUSH)
+                | bit(preferences.getEventReminders(), EVENT_REMINDERS)
+                | bit(preferences.getTaskAssignments(), TASK_ASSIGNMENTS)
+                | bit(preferences.getVoteNotifications(), VOTE_NOTIFICATIONS)
+                | bit(preferences.getBudgetAlerts(), BUDGET_ALERTS)
+                | bit(preferences.getGroupInvitations(), GROUP_INVITATIONS);
+    }
+
+    public static boolean accepts(int flags, NotificationType type) {
+        int mask = switch (type) {
+            case EVENT_REMINDER -> EVENT_REMINDERS;
+            case TASK_ASSIGNED, TASK_COMPLETED -> TASK_ASSIGNMENTS;
+            case VOTE_CREATED, VOTE_CLOSING_SOON -> VOTE_NOTIFICATIONS;
+            case BUDGET_ALERT, PAYMENT_REQUEST -> BUDGET_ALERTS;
+            case GROUP_INVITATION -> GROUP_INVITATIONS;
+            default -> 0;
+        };
+        // Types without a preference of their own are always accepted
+        return mask == 0 || (flags & mask) != 0;
+    }
+
+    public static boolean sends(int flags, DeliveryChannel channel) {
+        int mask = switch (channel) {
+            case EMAIL -> EMAIL;
+            case PUSH -> PUSH;
+        };
+        return (flags & mask) != 0;
+    }
+
+    private static int bit(Boolean enabled, int flag) {
+        return Boolean.FALSE.equals(enabled) ? 0 : flag;
+    }
+}
@@ -0,0 +1,124 @@
+package com.livemory.livemory_api.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Notification preferences per user, packed as NotificationPreferenceFlags. Misses for a whole set
+ * of users are loaded in one query per chunk, so warming a fan-out of thousands of recipients costs
+ * a handful of queries. An update made by this instance writes the new flags after commit, and a
+ * load never replaces an entry written while it ran, so a load that read the old row cannot bring
+ * the old flags back. The TTL bounds how long an update made by another instance can go unnoticed.
+ */
+@Component
+public class NotificationPreferencesCache {
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    // Flags never use the sign bit
+    private static final int UNKNOWN = -1;
+
+    private final NotificationPreferencesRepository preferencesRepository;
+    // Flags fit in 7 bits, so values are always the shared Integer instances of Integer.valueOf
+    private final Cache<Long, Integer> flags;
+
+    public NotificationPreferencesCache(NotificationPreferencesRepository preferencesRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.notifications.preferences-cache.max-size:100000}") long maxSize,
+            @Value("${app.notifications.preferences-cache.ttl:5m}") Duration ttl) {
+        this.preferencesRepository = preferencesRepository;
+        this.flags = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, flags, "notifications.preferences");
+    }
+
+    /**
+     * Returns the user's flags, or ALL for an unknown user.
+     */
+    public int get(Long userId) {
+        // Atomic per key: an update of the same user waits for the load, then overwrites it
+        Integer userFlags = flags.get(userId, id -> load(List.of(id)).get(id));
+        return userFlags != null ? userFlags : NotificationPreferenceFlags.ALL;
+    }
+
+    /**
+     * Passes each of the given users with their flags to the action, in the same order. Unknown users
+     * are left out. When every user is cached, nothing is allocated besides one int array.
+     */
+    public void forEachRecipient(List<Long> userIds, ObjIntConsumer<Long> action) {
+        int[] found = new int[userIds.size()];
+        List<Long> missing = null;
+        for (int i = 0; i < found.length; i++) {
+            Integer userFlags = flags.getIfPresent(userIds.get(i));
+            if (userFlags != null) {
+                found[i] = userFlags;
+            } else {
+                found[i] = UNKNOWN;
+                if (missing == null) {
+                    missing = new ArrayList<>();
+                }
+                missing.add(userIds.get(i));
+            }
+        }
+        if (missing != null) {
+            // Not getAll: its bulk load overwrites entries that an update wrote during the load
+            Map<Long, Integer> loaded = load(missing);
+            loaded.replaceAll((userId, userFlags) -> {
+                Integer current = flags.asMap().putIfAbsent(userId, userFlags);
+                return current != null ? current : userFlags;
+            });
+            for (int i = 0; i < found.length; i++) {
+                if (found[i] == UNKNOWN) {
+                    found[i] = loaded.getOrDefault(userIds.get(i), UNKNOWN);
+                }
+            }
+        }
+        for (int i = 0; i < found.length; i++) {
+            if (found[i] != UNKNOWN) {
+                action.accept(userIds.get(i), found[i]);
+            }
+        }
+    }
+
+    /**
+     * Caches the user's new flags once the transaction that saved them commits.
+     */
+    public void update(Long userId, int userFlags) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    flags.put(userId, userFlags);
+                }
+            });
+        } else {
+            flags.put(userId, userFlags);
+        }
+    }
+
+    private Map<Long, Integer> load(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        Map<Long, Integer> loaded = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            preferencesRepository.findRecipientsByUserIds(ids.subList(from, Math.min(from + LOAD_CHUNK_SIZE, ids.size())))
+                    .forEach(recipient -> loaded.put(recipient.userId(), recipient.preferences()));
+        }
+        return loaded;
+    }
+}
@@ -1,10 +1,28 @@
 package com.livemory.livemory_api.notification;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface NotificationPreferencesRepository extends JpaRepository<NotificationPreferences, Long> {
 
+    // Packs the flags as NotificationPreferenceFlags; a missing preferences row sets every bit
+    String PREFERENCE_FLAGS = "(CASE WHEN np.emailEnabled = false THEN 0 ELSE 1 END) "
+            + "+ (CASE WHEN np.pushEnabled = false THEN 0 ELSE 2 END) "
+            + "+ (CASE WHEN np.eventReminders = false THEN 0 ELSE 4 END) "
+            + "+ (CASE WHEN np.taskAssignments = false THEN 0 ELSE 8 END) "
+            + "+ (CASE WHEN np.voteNotifications = false THEN 0 ELSE 16 END) "
+            + "+ (CASE WHEN np.budgetAlerts = false THEN 0 ELSE 32 END) "
+            + "+ (CASE WHEN np.groupInvitations = false THEN 0 ELSE 64 END)";
+
     Optional<NotificationPreferences> findByUserId(Long userId);
+
+    @Query("SELECT new com.livemory.livemory_api.notification.NotificationRecipient(u.id, " + PREFERENCE_FLAGS + ") "
+            + "FROM User u LEFT JOIN NotificationPreferences np ON np.user.id = u.id "
+            + "WHERE u.id IN :userIds")
+    List<NotificationRecipient> findRecipientsByUserIds(@Param("userIds") Collection<Long> userIds);
 }
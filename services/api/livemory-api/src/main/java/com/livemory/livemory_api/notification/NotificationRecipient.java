@@ -0,0 +1,7 @@
+package com.livemory.livemory_api.notification;
+
+/**
+ * A user to notify along with their notification preferences, packed as NotificationPreferenceFlags.
+ */
+public record NotificationRecipient(Long userId, int preferences) {
+}
@@ -1,24 +1,78 @@
 package com.livemory.livemory_api.notification;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+    // Keyset pages of a user's notifications, newest first. The plain createdAt bounds let
+    // PostgreSQL skip the partitions outside the listing window and after the cursor.
+
+    String NOTIFICATION_RESPONSE = "SELECT new com.livemory.livemory_api.notification.NotificationResponse("
+            + "n.id, n.type, n.title, n.message, n.relatedEntityType, n.relatedEntityId, n.actionUrl, "
+            + "n.digestCount, n.isRead, n.isSent, n.createdAt) FROM Notification n ";
+
+    @Query(NOTIFICATION_RESPONSE + "WHERE n.user.id = :userId AND n.createdAt >= :since "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponse> findFirstPageByUserId(@Param("userId") Long userId,
+            @Param("since") LocalDateTime since, Limit limit);
+
+    @Query(NOTIFICATION_RESPONSE + "WHERE n.user.id = :userId AND n.createdAt >= :since "
+            + "AND n.createdAt <= :createdAt AND (n.createdAt, n.id) < (:createdAt, :id) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponse> findPageByUserIdAfter(@Param("userId") Long userId,
+            @Param("since") LocalDateTime since, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Limit limit);
 
     List<Notification> findByGuestUserIdOrderByCreatedAtDesc(Long guestUserId);
 
     List<Notification> findByUserIdAndIsReadOrderByCreatedAtDesc(Long userId, Boolean isRead);
 
-    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
-    List<Notification> findUnreadByUserId(@Param("userId") Long userId);
+    // Unread queries and bulk read marking cover the same listing window as the pages above, so
+    // the unread count only includes notifications the user can actually list
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false "
+            + "AND n.createdAt >= :since")
+    List<Notification> findUnreadByUserId(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false "
+            + "AND n.createdAt >= :since")
+    Long countUnreadByUserId(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    // Bulk read marking: one UPDATE each, returning the number of notifications that became read
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true "
+            + "WHERE n.user.id = :userId AND n.isRead = false AND n.createdAt >= :since")
+    int markAllAsReadByUserId(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true "
+            + "WHERE n.user.id = :userId AND n.isRead = false AND n.createdAt >= :since "
+            + "AND n.id BETWEEN :fromId AND :toId")
+    int markAsReadByUserIdAndIdRange(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+            @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true "
+            + "WHERE n.user.id = :userId AND n.isRead = false AND n.createdAt >= :since "
+            + "AND n.createdAt <= :until")
+    int markAsReadByUserIdCreatedUntil(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+            @Param("until") LocalDateTime until);
 
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
-    Long countUnreadByUserId(@Param("userId") Long userId);
+    // Sent once no outbox row is left for any of its channels
+    @Modifying
+    @Query("UPDATE Notification n SET n.isSent = true, n.sentAt = :sentAt "
+            + "WHERE n.id IN :ids AND n.isSent = false "
+            + "AND NOT EXISTS (SELECT o.id FROM NotificationOutbox o WHERE o.notification = n)")
+    int markSentWhereDelivered(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
 
     List<Notification> findByTypeAndIsSent(NotificationType type, Boolean isSent);
 }
@@ -10,6 +10,7 @@ public record NotificationResponse(
         String relatedEntityType,
         Long relatedEntityId,
         String actionUrl,
+        Integer digestCount,
         Boolean isRead,
         Boolean isSent,
         LocalDateTime createdAt) {
@@ -22,6 +23,7 @@ public record NotificationResponse(
                 notification.getRelatedEntityType(),
                 notification.getRelatedEntityId(),
                 notification.getActionUrl(),
+                notification.getDigestCount(),
                 notification.getIsRead(),
                 notification.getIsSent(),
                 notification.getCreatedAt());
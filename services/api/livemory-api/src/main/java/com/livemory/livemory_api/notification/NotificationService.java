@@ -1,31 +1,55 @@
 package com.livemory.livemory_api.notification;
 
+import com.livemory.livemory_api.common.KeysetCursor;
 import com.livemory.livemory_api.guest.GuestUser;
 import com.livemory.livemory_api.guest.GuestUserRepository;
 import com.livemory.livemory_api.user.User;
 import com.livemory.livemory_api.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
 @Transactional
 public class NotificationService {
+    private static final int MAX_PAGE_SIZE = 100;
+
 
     private final NotificationRepository notificationRepository;
     private final NotificationPreferencesRepository preferencesRepository;
+    private final NotificationOutboxRepository outboxRepository;
     private final UserRepository userRepository;
     private final GuestUserRepository guestUserRepository;
+    private final UnreadCountCache unreadCountCache;
+    private final NotificationPreferencesCache preferencesCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration listingWindow;
 
     public NotificationService(NotificationRepository notificationRepository,
             NotificationPreferencesRepository preferencesRepository,
+            NotificationOutboxRepository outboxRepository,
             UserRepository userRepository,
-            GuestUserRepository guestUserRepository) {
+            GuestUserRepository guestUserRepository,
+            UnreadCountCache unreadCountCache,
+            NotificationPreferencesCache preferencesCache,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.notifications.listing.window:90d}") Duration listingWindow) {
         this.notificationRepository = notificationRepository;
         this.preferencesRepository = preferencesRepository;
+        this.outboxRepository = outboxRepository;
         this.userRepository = userRepository;
         this.guestUserRepository = guestUserRepository;
+        this.unreadCountCache = unreadCountCache;
+        this.preferencesCache = preferencesCache;
+        this.eventPublisher = eventPublisher;
+        this.listingWindow = listingWindow;
     }
 
     public Notification createNotification(CreateNotificationRequest request) {
@@ -47,39 +71,110 @@ public class NotificationService {
             notification.setGuestUser(guestUser);
         }
 
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        // Same transaction: the notification is never committed without its pending deliveries
+        outboxRepository.saveAll(deliveryChannels(saved).stream()
+                .map(channel -> new NotificationOutbox(saved, channel))
+                .toList());
+        unreadCountCache.increment(request.userId());
+        eventPublisher.publishEvent(new NotificationCreatedEvent(
+                userIdOf(saved),
+                saved.getGuestUser() != null ? saved.getGuestUser().getId() : null,
+                NotificationResponse.from(saved)));
+        return saved;
     }
 
+    /**
+     * Pages through the user's notifications of the listing window (the recent partitions only).
+     */
     @Transactional(readOnly = true)
-    public List<Notification> getUserNotifications(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public NotificationPage getUserNotifications(Long userId, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        int limit = Math.min(size, MAX_PAGE_SIZE);
+        LocalDateTime since = listingStart();
+
+        List<NotificationResponse> notifications;
+        if (cursor == null) {
+            notifications = notificationRepository.findFirstPageByUserId(userId, since, Limit.of(limit + 1));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            notifications = notificationRepository.findPageByUserIdAfter(userId, since, after.at(), after.id(),
+                    Limit.of(limit + 1));
+        }
+
+        // One extra row is fetched to know whether another page follows
+        boolean hasMore = notifications.size() > limit;
+        List<NotificationResponse> items = hasMore ? notifications.subList(0, limit) : notifications;
+        if (!hasMore) {
+            return new NotificationPage(items, null);
+        }
+        NotificationResponse last = items.get(items.size() - 1);
+        return new NotificationPage(items, new KeysetCursor(last.createdAt(), last.id()).encode());
     }
 
     @Transactional(readOnly = true)
     public List<Notification> getUnreadNotifications(Long userId) {
-        return notificationRepository.findUnreadByUserId(userId);
+        return notificationRepository.findUnreadByUserId(userId, listingStart());
     }
 
     @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countUnreadByUserId(userId);
+        return unreadCountCache.get(userId, () -> notificationRepository.countUnreadByUserId(userId, listingStart()));
     }
 
     public void markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
+        if (notification.getIsRead()) {
+            return;
+        }
         notification.markAsRead();
         notificationRepository.save(notification);
+        if (isListed(notification)) {
+            unreadCountCache.decrement(userIdOf(notification));
+        }
     }
 
-    public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = notificationRepository.findUnreadByUserId(userId);
-        unreadNotifications.forEach(Notification::markAsRead);
-        notificationRepository.saveAll(unreadNotifications);
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllAsReadByUserId(userId, listingStart());
+        unreadCountCache.adjust(userId, -updated);
+        return updated;
+    }
+
+    /**
+     * Marks as read the user's notifications of the listing window with an id in [fromId, toId], or
+     * created up to {@code until}. Exactly one of the two bounds must be given.
+     */
+    public int markUserNotificationsAsRead(Long userId, Long fromId, Long toId, LocalDateTime until) {
+        boolean byRange = fromId != null || toId != null;
+        if (byRange == (until != null)) {
+            throw new IllegalArgumentException("Provide either fromId and toId, or until");
+        }
+
+        int updated;
+        if (byRange) {
+            if (fromId == null || toId == null || fromId > toId) {
+                throw new IllegalArgumentException("Invalid id range");
+            }
+            updated = notificationRepository.markAsReadByUserIdAndIdRange(userId, listingStart(), fromId, toId);
+        } else {
+            updated = notificationRepository.markAsReadByUserIdCreatedUntil(userId, listingStart(), until);
+        }
+        unreadCountCache.adjust(userId, -updated);
+        return updated;
     }
 
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            // No foreign key since notifications are partitioned
+            outboxRepository.deleteByNotificationId(notificationId);
+            notificationRepository.delete(notification);
+            if (!notification.getIsRead() && isListed(notification)) {
+                unreadCountCache.decrement(userIdOf(notification));
+            }
+        });
     }
 
     // Notification Preferences
@@ -119,6 +214,31 @@ public class NotificationService {
             prefs.setGroupInvitations(updates.getGroupInvitations());
         }
 
-        return preferencesRepository.save(prefs);
+        NotificationPreferences saved = preferencesRepository.save(prefs);
+        preferencesCache.update(userId, NotificationPreferenceFlags.of(saved));
+        return saved;
+    }
+
+    private List<DeliveryChannel> deliveryChannels(Notification notification) {
+        if (notification.getUser() == null) {
+            return notification.getGuestUser().getEmail() != null ? List.of(DeliveryChannel.EMAIL) : List.of();
+        }
+        int flags = preferencesCache.get(notification.getUser().getId());
+        return Arrays.stream(DeliveryChannel.values())
+                .filter(channel -> NotificationPreferenceFlags.sends(flags, channel))
+                .toList();
+    }
+
+    // Unread counts, listings and read marking all stop at the listing window
+    private LocalDateTime listingStart() {
+        return LocalDateTime.now().minus(listingWindow);
+    }
+
+    private boolean isListed(Notification notification) {
+        return !notification.getCreatedAt().isBefore(listingStart());
+    }
+
+    private static Long userIdOf(Notification notification) {
+        return notification.getUser() != null ? notification.getUser().getId() : null;
     }
 }
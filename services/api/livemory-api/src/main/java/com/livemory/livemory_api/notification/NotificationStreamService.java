@@ -0,0 +1,317 @@
+package com.livemory.livemory_api.notification;
+
+import com.livemory.livemory_api.guest.GuestUserService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes new notifications to connected clients over Server-Sent Events.
+ * An open stream holds no thread: events go into a small per-connection buffer and are written by a
+ * shared sender pool. A client that lets its buffer fill up is disconnected and is expected to
+ * reconnect and catch up through the regular endpoints. Heartbeats keep proxies from closing idle
+ * streams and reveal dead connections.
+ * <p>
+ * Writes are blocking servlet writes: a client that stops reading eventually blocks its sender
+ * thread until the container's write timeout, and an interrupt does not release it. A watchdog
+ * therefore drops any connection whose send has been blocked longer than send-timeout and adds a
+ * thread to the pool until that send returns, so stalled clients do not hold back the others. At
+ * most max-stalled-senders threads are added; past that, stalled clients do delay other streams.
+ */
+@Service
+public class NotificationStreamService {
+
+    // Values of Subscription.sendStartedAt besides a System.nanoTime() reading
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long STALLED = Long.MAX_VALUE;
+
+    private final GuestUserService guestUserService;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final long sendTimeoutNanos;
+    private final int maxStalledSenders;
+    private final ThreadPoolExecutor sender;
+    private int stalledSenders;
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>(); // key: user:{id} or guest:{id}
+
+    public NotificationStreamService(GuestUserService guestUserService,
+            MeterRegistry meterRegistry,
+            @Value("${app.notifications.stream.timeout:30m}") Duration timeout,
+            @Value("${app.notifications.stream.buffer-size:32}") int bufferSize,
+            @Value("${app.notifications.stream.sender-threads:4}") int senderThreads,
+            @Value("${app.notifications.stream.send-timeout:5s}") Duration sendTimeout,
+            @Value("${app.notifications.stream.max-stalled-senders:64}") int maxStalledSenders) {
+        this.guestUserService = guestUserService;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.maxStalledSenders = maxStalledSenders;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // Each connection has at most one pending drain task, so the queue is bounded by the connection count
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-sse-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("notifications.stream.connections", subscriptions,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribeUser(Long userId) {
+        return subscribe(userKey(userId));
+    }
+
+    public SseEmitter subscribeGuest(String guestToken) {
+        return subscribe(guestKey(guestUserService.getSession(guestToken).id()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        String key = event.userId() != null ? userKey(event.userId()) : guestKey(event.guestUserId());
+        Set<Subscription> targets = subscriptions.get(key);
+        if (targets == null) {
+            return;
+        }
+
+        push(targets, event.notification());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationBatchCreated(NotificationBatchCreatedEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        List<PendingNotification> notifications = event.notifications();
+        for (int i = 0; i < notifications.size(); i++) {
+            Set<Subscription> targets = subscriptions.get(userKey(notifications.get(i).userId()));
+            // Only the connected recipients cost a response and a serialized event
+            if (targets != null) {
+                push(targets, event.response(i));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscriptions.values().forEach(set -> set.forEach(subscription -> subscription.close(true)));
+    }
+
+    private static void push(Set<Subscription> targets, NotificationResponse notification) {
+        // Built once: the event builder itself can only be sent once, its content can be shared
+        Set<ResponseBodyEmitter.DataWithMediaType> sseEvent = SseEmitter.event()
+                .id(String.valueOf(notification.id()))
+                .name("notification")
+                .data(notification, MediaType.APPLICATION_JSON)
+                .build();
+        targets.forEach(subscription -> subscription.enqueue(sseEvent));
+    }
+
+    private SseEmitter subscribe(String key) {
+        Subscription subscription = new Subscription(key, new SseEmitter(timeoutMillis));
+        subscriptions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+
+        SseEmitter emitter = subscription.emitter;
+        emitter.onCompletion(() -> subscription.close(false));
+        emitter.onTimeout(() -> subscription.close(true));
+        emitter.onError(error -> subscription.close(false));
+
+        // Commits the response headers so the client sees the stream open right away
+        subscription.enqueue(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    @Scheduled(fixedRateString = "${app.notifications.stream.heartbeat-interval:25s}",
+            initialDelayString = "${app.notifications.stream.heartbeat-interval:25s}")
+    void sendHeartbeats() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscriptions.values().forEach(set -> set.forEach(subscription -> {
+            // Anything already buffered proves the connection is alive once it is written
+            if (subscription.buffer.isEmpty()) {
+                subscription.enqueue(heartbeat);
+            }
+        }));
+    }
+
+    // Runs more often than send-timeout, so a stalled send is caught soon after it times out
+    @Scheduled(fixedRateString = "${app.notifications.stream.watchdog-interval:1s}",
+            initialDelayString = "${app.notifications.stream.watchdog-interval:1s}")
+    void detectStalledSends() {
+        long now = System.nanoTime();
+        subscriptions.values().forEach(set -> set.forEach(subscription -> {
+            long startedAt = subscription.sendStartedAt.get();
+            if (startedAt != IDLE && startedAt != STALLED && now - startedAt > sendTimeoutNanos) {
+                subscription.markStalled(startedAt);
+            }
+        }));
+    }
+
+    // Called once per stalled send, and released once that send returns
+    private synchronized boolean addStalledSender() {
+        if (stalledSenders >= maxStalledSenders) {
+            return false;
+        }
+        stalledSenders++;
+        // Raise the maximum first: the core size may never exceed it
+        sender.setMaximumPoolSize(sender.getMaximumPoolSize() + 1);
+        sender.setCorePoolSize(sender.getCorePoolSize() + 1);
+        return true;
+    }
+
+    private synchronized void releaseStalledSender() {
+        stalledSenders--;
+        sender.setCorePoolSize(sender.getCorePoolSize() - 1);
+        sender.setMaximumPoolSize(sender.getMaximumPoolSize() - 1);
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.key, (key, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static String userKey(Long userId) {
+        return "user:" + userId;
+    }
+
+    private static String guestKey(Long guestUserId) {
+        return "guest:" + guestUserId;
+    }
+
+    private final class Subscription {
+        private final String key;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Whoever moves it away from a send's start time owns the outcome: the sender or the watchdog
+        private final AtomicLong sendStartedAt = new AtomicLong(IDLE);
+        private volatile boolean replaced;
+
+        private Subscription(String key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                // Slow consumer: drop the connection rather than buffer without bound
+                close(true);
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close(true);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the container's write timeout fired; it completes the emitter
+                close(false);
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been buffered after the last poll but before draining was reset
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Set<ResponseBodyEmitter.DataWithMediaType> event) throws IOException {
+            long startedAt = System.nanoTime();
+            sendStartedAt.set(startedAt);
+            boolean sent = false;
+            try {
+                emitter.send(event);
+                sent = true;
+            } finally {
+                if (!sendStartedAt.compareAndSet(startedAt, IDLE)) {
+                    // The watchdog dropped the connection while this send was blocked
+                    if (replaced) {
+                        releaseStalledSender();
+                    }
+                    if (sent) {
+                        emitter.complete();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Drops the connection from the watchdog thread. The blocked send holds the emitter, so it
+         * is completed by the sender once the send returns.
+         */
+        void markStalled(long startedAt) {
+            // Written before the swap, so the sender sees it once it sees STALLED
+            replaced = addStalledSender();
+            if (!sendStartedAt.compareAndSet(startedAt, STALLED)) {
+                // The send returned in the meantime
+                if (replaced) {
+                    releaseStalledSender();
+                }
+                return;
+            }
+            close(false);
+        }
+
+        void close(boolean complete) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            remove(this);
+            buffer.clear();
+            if (complete) {
+                emitter.complete();
+            }
+        }
+    }
+}
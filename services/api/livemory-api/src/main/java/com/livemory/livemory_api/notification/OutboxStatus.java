@@ -0,0 +1,6 @@
+package com.livemory.livemory_api.notification;
+
+public enum OutboxStatus {
+    PENDING, // En attente d'envoi (ou de nouvelle tentative)
+    FAILED // Abandonné après le nombre maximal de tentatives
+}
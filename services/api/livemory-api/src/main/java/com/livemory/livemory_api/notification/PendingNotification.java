@@ -0,0 +1,17 @@
+package com.livemory.livemory_api.notification;
+
+/**
+ * A user notification ready to be written by NotificationBatchWriter, with the recipient's
+ * NotificationPreferenceFlags, which pick the channels it is delivered on.
+ */
+public record PendingNotification(
+        Long userId,
+        NotificationType type,
+        String title,
+        String message,
+        String relatedEntityType,
+        Long relatedEntityId,
+        String actionUrl,
+        int digestCount,
+        int preferences) {
+}
@@ -0,0 +1,24 @@
+package com.livemory.livemory_api.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for the push provider: logs the message instead of sending it.
+ */
+@Component
+public class PushNotificationChannel implements NotificationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(PushNotificationChannel.class);
+
+    @Override
+    public DeliveryChannel channel() {
+        return DeliveryChannel.PUSH;
+    }
+
+    @Override
+    public void deliver(NotificationDelivery delivery) {
+        log.info("Push to user {}: {}", delivery.userId(), delivery.title());
+    }
+}
@@ -0,0 +1,6 @@
+package com.livemory.livemory_api.notification;
+
+public enum RetentionMode {
+    DROP, // Les partitions expirées sont supprimées
+    ARCHIVE // Les partitions expirées sont détachées et déplacées dans le schéma notifications_archive
+}
@@ -0,0 +1,93 @@
+package com.livemory.livemory_api.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Unread notification count per user. A missing entry is loaded from the database once, then kept
+ * up to date by the writes of NotificationService. Adjustments are applied after the transaction
+ * commits, so a rollback never skews the counter; the TTL bounds any drift from concurrent loads
+ * and from notifications leaving the listing window.
+ */
+@Component
+public class UnreadCountCache {
+
+    private final Cache<Long, AtomicLong> counts;
+
+    public UnreadCountCache(MeterRegistry meterRegistry,
+            @Value("${app.notifications.unread-cache.max-size:100000}") long maxSize,
+            @Value("${app.notifications.unread-cache.ttl:10m}") Duration ttl) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "notifications.unread-count");
+    }
+
+    public long get(Long userId, LongSupplier loader) {
+        return counts.get(userId, id -> new AtomicLong(loader.getAsLong())).get();
+    }
+
+    public void increment(Long userId) {
+        adjust(userId, 1);
+    }
+
+    public void decrement(Long userId) {
+        adjust(userId, -1);
+    }
+
+    public void adjust(Long userId, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        afterCommit(() -> apply(userId, delta));
+    }
+
+    /**
+     * Same as adjust for many users, applied in a single pass after commit.
+     */
+    public void adjustAll(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> deltas.forEach(this::apply));
+    }
+
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(Long userId, long delta) {
+        // Users without an entry are counted from the database on their next read.
+        // Looked up through the map view so that writes do not show up as cache hits.
+        AtomicLong count = counts.asMap().get(userId);
+        if (count != null && count.addAndGet(delta) < 0) {
+            counts.invalidate(userId);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.livemory.livemory_api.offer;
+
+import java.util.List;
+
+public record EventOfferMatches(
+        Long eventId,
+        int groupSize,
+        List<PartnerOfferResponse> offers) {
+}
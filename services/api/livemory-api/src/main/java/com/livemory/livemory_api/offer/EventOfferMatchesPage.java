@@ -0,0 +1,12 @@
+package com.livemory.livemory_api.offer;
+
+import java.util.List;
+
+/**
+ * One page of upcoming events with their offers, by start date. Pass {@code nextCursor} back as
+ * {@code cursor} to get the following page; it is null on the last page.
+ */
+public record EventOfferMatchesPage(
+        List<EventOfferMatches> items,
+        String nextCursor) {
+}
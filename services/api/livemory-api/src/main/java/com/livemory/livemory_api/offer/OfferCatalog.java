@@ -0,0 +1,103 @@
+package com.livemory.livemory_api.offer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the active partner offers. Offers are kept sorted by minimum group size,
+ * overall and per category, with the thresholds in a parallel int array: the offers a group
+ * qualifies for are the prefix found by a binary search on that array.
+ */
+final class OfferCatalog {
+
+    static final OfferCatalog EMPTY = new OfferCatalog(new OfferWatermark(null, 0L), List.of());
+
+    private static final Comparator<PartnerOfferResponse> BY_MIN_GROUP_SIZE =
+            Comparator.comparing(PartnerOfferResponse::minGroupSize).thenComparing(PartnerOfferResponse::id);
+
+    private final OfferWatermark watermark;
+    private final Map<Long, PartnerOfferResponse> byId;
+    private final Slice all;
+    private final Map<OfferCategory, Slice> byCategory = new EnumMap<>(OfferCategory.class);
+    private final OfferMatcher matcher;
+
+    OfferCatalog(OfferWatermark watermark, List<PartnerOfferResponse> offers) {
+        this.watermark = watermark;
+        this.byId = offers.stream().collect(Collectors.toUnmodifiableMap(PartnerOfferResponse::id, Function.identity()));
+        this.all = Slice.of(offers);
+        offers.stream()
+                .collect(Collectors.groupingBy(PartnerOfferResponse::category))
+                .forEach((category, inCategory) -> byCategory.put(category, Slice.of(inCategory)));
+        this.matcher = new OfferMatcher(offers);
+    }
+
+    OfferWatermark watermark() {
+        return watermark;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    OfferMatcher matcher() {
+        return matcher;
+    }
+
+    PartnerOfferResponse get(Long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Offers of the category (all when null) that a group of this size qualifies for (any size when
+     * null) and that are valid at the given time, by increasing minimum group size.
+     */
+    List<PartnerOfferResponse> find(OfferCategory category, Integer groupSize, LocalDateTime at) {
+        Slice slice = category == null ? all : byCategory.get(category);
+        if (slice == null) {
+            return List.of();
+        }
+        int end = groupSize == null ? slice.offers().length : slice.qualifyingCount(groupSize);
+        List<PartnerOfferResponse> result = new ArrayList<>(end);
+        for (int i = 0; i < end; i++) {
+            if (slice.offers()[i].isValidAt(at)) {
+                result.add(slice.offers()[i]);
+            }
+        }
+        return result;
+    }
+
+    private record Slice(PartnerOfferResponse[] offers, int[] minGroupSizes) {
+
+        static Slice of(List<PartnerOfferResponse> offers) {
+            PartnerOfferResponse[] sorted = offers.toArray(PartnerOfferResponse[]::new);
+            Arrays.sort(sorted, BY_MIN_GROUP_SIZE);
+            int[] thresholds = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                thresholds[i] = sorted[i].minGroupSize();
+            }
+            return new Slice(sorted, thresholds);
+        }
+
+        // Number of leading offers whose threshold is at most groupSize
+        int qualifyingCount(int groupSize) {
+            int low = 0;
+            int high = minGroupSizes.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (minGroupSizes[mid] <= groupSize) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.livemory.livemory_api.offer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Serves partner offers from an in-memory catalog so browsing never queries the database. A
+ * scheduled check compares the table's watermark (row count and latest update) with the one the
+ * catalog was built from, and swaps in a freshly built catalog only when it changed. Readers always
+ * see one complete snapshot.
+ */
+@Service
+public class OfferCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(OfferCatalogService.class);
+
+    private final PartnerOfferRepository partnerOfferRepository;
+    private volatile OfferCatalog catalog;
+
+    public OfferCatalogService(PartnerOfferRepository partnerOfferRepository) {
+        this.partnerOfferRepository = partnerOfferRepository;
+    }
+
+    public List<PartnerOfferResponse> getOffers(OfferCategory category, Integer groupSize) {
+        return current().find(category, groupSize, LocalDateTime.now());
+    }
+
+    public PartnerOfferResponse getOffer(Long id) {
+        PartnerOfferResponse offer = current().get(id);
+        if (offer == null) {
+            throw new IllegalArgumentException("Offer not found");
+        }
+        return offer;
+    }
+
+    /**
+     * Rebuilds the catalog if the offers changed since it was built; call it after writing offers to
+     * make the change visible right away. Returns whether the catalog was replaced. A failed
+     * refresh keeps the previous catalog.
+     */
+    @Scheduled(fixedDelayString = "${app.offers.catalog.refresh-interval:30s}")
+    public synchronized boolean refresh() {
+        OfferWatermark watermark = partnerOfferRepository.findWatermark();
+        OfferCatalog previous = catalog;
+        if (previous != null && Objects.equals(previous.watermark(), watermark)) {
+            return false;
+        }
+
+        // Read after the watermark: a concurrent change at worst triggers one extra rebuild
+        List<PartnerOfferResponse> offers = partnerOfferRepository.findByIsActiveTrue().stream()
+                .map(PartnerOfferResponse::from)
+                .toList();
+        catalog = new OfferCatalog(watermark, offers);
+        log.info("Loaded {} active partner offers", offers.size());
+        return true;
+    }
+
+    OfferCatalog current() {
+        OfferCatalog current = catalog;
+        if (current == null) {
+            // First request before the initial scheduled load
+            refresh();
+            current = catalog;
+        }
+        return current;
+    }
+}
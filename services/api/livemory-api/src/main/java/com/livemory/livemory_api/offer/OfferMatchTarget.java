@@ -0,0 +1,12 @@
+package com.livemory.livemory_api.offer;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event as seen by offer matching: when it takes place and how many people take part.
+ */
+public record OfferMatchTarget(
+        Long eventId,
+        LocalDateTime startDate,
+        int groupSize) {
+}
@@ -0,0 +1,174 @@
+package com.livemory.livemory_api.offer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Ranks the offers an event is eligible for: the group is large enough (minGroupSize) and the offer
+ * is valid when the event starts. Offers are ranked by discount, highest first.
+ *
+ * Built once per catalog. Offers are numbered in rank order; validity windows are kept as two
+ * arrays of those numbers, sorted by start and by end. Matching many events sweeps them by start
+ * date: offers are switched on as their window opens and off as it closes, in a segment tree over
+ * rank positions holding the smallest group size threshold of each range. The best offers for a
+ * group of n are then found by descending into ranges whose minimum is at most n, so each event
+ * costs O(limit * log offers) instead of a scan of the catalog.
+ */
+final class OfferMatcher {
+
+    private static final Comparator<PartnerOfferResponse> BY_RANK = Comparator
+            .comparing((PartnerOfferResponse offer) -> offer.discountPercentage() != null
+                    ? offer.discountPercentage() : BigDecimal.ZERO)
+            .reversed()
+            .thenComparing(PartnerOfferResponse::id);
+
+    private static final int OFF = Integer.MAX_VALUE;
+
+    private final PartnerOfferResponse[] ranked;
+    private final int[] minGroupSizes;
+    private final long[] validFrom;
+    private final long[] validUntil;
+    private final int[] byValidFrom;
+    private final int[] byValidUntil;
+
+    OfferMatcher(List<PartnerOfferResponse> offers) {
+        // An offer whose window closes before it opens can never match
+        this.ranked = offers.stream()
+                .filter(offer -> offer.validFrom() == null || offer.validUntil() == null
+                        || !offer.validFrom().isAfter(offer.validUntil()))
+                .sorted(BY_RANK)
+                .toArray(PartnerOfferResponse[]::new);
+
+        int n = ranked.length;
+        this.minGroupSizes = new int[n];
+        this.validFrom = new long[n];
+        this.validUntil = new long[n];
+        for (int i = 0; i < n; i++) {
+            minGroupSizes[i] = ranked[i].minGroupSize();
+            validFrom[i] = ranked[i].validFrom() != null ? epochMillis(ranked[i].validFrom()) : Long.MIN_VALUE;
+            validUntil[i] = ranked[i].validUntil() != null ? epochMillis(ranked[i].validUntil()) : Long.MAX_VALUE;
+        }
+        this.byValidFrom = sortedPositions(validFrom);
+        this.byValidUntil = sortedPositions(validUntil);
+    }
+
+    /**
+     * Best offers for one event, scanning the catalog in rank order.
+     */
+    List<PartnerOfferResponse> match(OfferMatchTarget target, LocalDateTime defaultStart, int limit) {
+        long at = epochMillis(target.startDate() != null ? target.startDate() : defaultStart);
+        List<PartnerOfferResponse> matches = new ArrayList<>(limit);
+        for (int i = 0; i < ranked.length && matches.size() < limit; i++) {
+            if (minGroupSizes[i] <= target.groupSize() && validFrom[i] <= at && at <= validUntil[i]) {
+                matches.add(ranked[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Best offers for every event, in the order of the targets, in a single sweep.
+     */
+    List<List<PartnerOfferResponse>> matchAll(List<OfferMatchTarget> targets, LocalDateTime defaultStart, int limit) {
+        int count = targets.size();
+        long[] starts = new long[count];
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = targets.get(i).startDate();
+            starts[i] = epochMillis(start != null ? start : defaultStart);
+        }
+        int[] order = sortedPositions(starts);
+
+        List<List<PartnerOfferResponse>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(null);
+        }
+
+        ActiveOffers active = new ActiveOffers(ranked.length);
+        int opened = 0;
+        int closed = 0;
+        for (int target : order) {
+            long at = starts[target];
+            while (opened < byValidFrom.length && validFrom[byValidFrom[opened]] <= at) {
+                int position = byValidFrom[opened++];
+                active.set(position, minGroupSizes[position]);
+            }
+            // Windows are sorted by end too, and opened windows always close after they open
+            while (closed < byValidUntil.length && validUntil[byValidUntil[closed]] < at) {
+                active.set(byValidUntil[closed++], OFF);
+            }
+
+            int groupSize = targets.get(target).groupSize();
+            List<PartnerOfferResponse> matches = new ArrayList<>(limit);
+            int position = active.first(0, groupSize);
+            while (position >= 0 && matches.size() < limit) {
+                matches.add(ranked[position]);
+                position = active.first(position + 1, groupSize);
+            }
+            results.set(target, matches);
+        }
+        return results;
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static int[] sortedPositions(long[] keys) {
+        return IntStream.range(0, keys.length)
+                .boxed()
+                .sorted(Comparator.comparingLong(i -> keys[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Segment tree over rank positions: each node holds the smallest threshold of the active offers
+     * below it, OFF when none is active.
+     */
+    private static final class ActiveOffers {
+
+        private final int leaves;
+        private final int[] min;
+
+        ActiveOffers(int size) {
+            int leaves = 1;
+            while (leaves < size) {
+                leaves <<= 1;
+            }
+            this.leaves = leaves;
+            this.min = new int[leaves * 2];
+            Arrays.fill(min, OFF);
+        }
+
+        void set(int position, int threshold) {
+            int node = position + leaves;
+            min[node] = threshold;
+            for (node >>= 1; node > 0; node >>= 1) {
+                min[node] = Math.min(min[node * 2], min[node * 2 + 1]);
+            }
+        }
+
+        // First position at or after from whose threshold is at most groupSize, or -1
+        int first(int from, int groupSize) {
+            return first(1, 0, leaves, from, groupSize);
+        }
+
+        private int first(int node, int low, int high, int from, int groupSize) {
+            if (high <= from || min[node] > groupSize) {
+                return -1;
+            }
+            if (high - low == 1) {
+                return low;
+            }
+            int mid = (low + high) >>> 1;
+            int found = first(node * 2, low, mid, from, groupSize);
+            return found >= 0 ? found : first(node * 2 + 1, mid, high, from, groupSize);
+        }
+    }
+}
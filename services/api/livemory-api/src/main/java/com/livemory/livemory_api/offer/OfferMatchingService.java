@@ -0,0 +1,109 @@
+package com.livemory.livemory_api.offer;
+
+import com.livemory.livemory_api.common.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matches partner offers to events by participant count and start date, against the in-memory
+ * catalog. Group sizes are read with one aggregate query, for a single event or for a whole page of
+ * upcoming events at once.
+ */
+@Service
+public class OfferMatchingService {
+
+    // Participants can be listed per step: count people, not rows
+    private static final String MATCH_TARGETS = "SELECT e.id, e.start_date, COUNT(DISTINCT p.user_id) AS group_size "
+            + "FROM events e LEFT JOIN participants p ON p.event_id = e.id AND p.status <> 'DECLINED' ";
+
+    // The page of events is cut first, so only its participants are counted
+    private static final String UPCOMING_TARGETS = "SELECT e.id, e.start_date, COUNT(DISTINCT p.user_id) AS group_size "
+            + "FROM (SELECT id, start_date FROM events WHERE start_date >= ? AND (start_date, id) > (?, ?) "
+            + "ORDER BY start_date, id LIMIT ?) e "
+            + "LEFT JOIN participants p ON p.event_id = e.id AND p.status <> 'DECLINED' "
+            + "GROUP BY e.id, e.start_date ORDER BY e.start_date, e.id";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final RowMapper<OfferMatchTarget> TARGET_MAPPER = (rs, rowNum) -> {
+        Timestamp startDate = rs.getTimestamp("start_date");
+        return new OfferMatchTarget(rs.getLong("id"), startDate != null ? startDate.toLocalDateTime() : null,
+                rs.getInt("group_size"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OfferCatalogService offerCatalogService;
+    private final int maxLimit;
+
+    public OfferMatchingService(JdbcTemplate jdbcTemplate,
+            OfferCatalogService offerCatalogService,
+            @Value("${app.offers.matching.max-limit:50}") int maxLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.offerCatalogService = offerCatalogService;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Best offers for the event; an event without a start date is matched against today.
+     */
+    public EventOfferMatches matchEvent(Long eventId, int limit) {
+        checkLimit(limit);
+        List<OfferMatchTarget> targets = jdbcTemplate.query(MATCH_TARGETS + "WHERE e.id = ? GROUP BY e.id",
+                TARGET_MAPPER, eventId);
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Event not found");
+        }
+
+        OfferMatchTarget target = targets.get(0);
+        List<PartnerOfferResponse> offers = offerCatalogService.current().matcher()
+                .match(target, LocalDateTime.now(), limit);
+        return new EventOfferMatches(target.eventId(), target.groupSize(), offers);
+    }
+
+    /**
+     * Best offers for a page of the events starting from now on, by start date.
+     */
+    public EventOfferMatchesPage matchUpcomingEvents(String cursor, int size, int limit) {
+        checkLimit(limit);
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        // Ids are positive, so (now, 0) comes before every event starting from now on
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : new KeysetCursor(now, 0L);
+
+        // One extra event is read to know whether another page follows
+        List<OfferMatchTarget> targets = jdbcTemplate.query(UPCOMING_TARGETS, TARGET_MAPPER, Timestamp.valueOf(now),
+                Timestamp.valueOf(after.at()), after.id(), pageSize + 1);
+        boolean hasMore = targets.size() > pageSize;
+        if (hasMore) {
+            targets = targets.subList(0, pageSize);
+        }
+
+        List<List<PartnerOfferResponse>> offers = offerCatalogService.current().matcher()
+                .matchAll(targets, now, limit);
+        List<EventOfferMatches> matches = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            matches.add(new EventOfferMatches(targets.get(i).eventId(), targets.get(i).groupSize(), offers.get(i)));
+        }
+        if (!hasMore) {
+            return new EventOfferMatchesPage(matches, null);
+        }
+        OfferMatchTarget last = targets.get(targets.size() - 1);
+        return new EventOfferMatchesPage(matches, new KeysetCursor(last.startDate(), last.eventId()).encode());
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+    }
+}
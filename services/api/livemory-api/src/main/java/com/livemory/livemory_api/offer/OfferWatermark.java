@@ -0,0 +1,8 @@
+package com.livemory.livemory_api.offer;
+
+import java.time.LocalDateTime;
+
+public record OfferWatermark(
+        LocalDateTime lastUpdatedAt,
+        Long count) {
+}
@@ -0,0 +1,44 @@
+package com.livemory.livemory_api.offer;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/offers")
+public class PartnerOfferController {
+
+    private final OfferCatalogService offerCatalogService;
+    private final OfferMatchingService offerMatchingService;
+
+    public PartnerOfferController(OfferCatalogService offerCatalogService,
+            OfferMatchingService offerMatchingService) {
+        this.offerCatalogService = offerCatalogService;
+        this.offerMatchingService = offerMatchingService;
+    }
+
+    @GetMapping
+    public List<PartnerOfferResponse> getOffers(
+            @RequestParam(required = false) OfferCategory category,
+            @RequestParam(required = false) Integer groupSize) {
+        return offerCatalogService.getOffers(category, groupSize);
+    }
+
+    @GetMapping("/event/{eventId}/matches")
+    public EventOfferMatches getEventMatches(@PathVariable Long eventId,
+            @RequestParam(defaultValue = "5") int limit) {
+        return offerMatchingService.matchEvent(eventId, limit);
+    }
+
+    @GetMapping("/matches/upcoming")
+    public EventOfferMatchesPage getUpcomingEventMatches(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "5") int limit) {
+        return offerMatchingService.matchUpcomingEvents(cursor, size, limit);
+    }
+
+    @GetMapping("/{id}")
+    public PartnerOfferResponse getOffer(@PathVariable Long id) {
+        return offerCatalogService.getOffer(id);
+    }
+}
@@ -1,6 +1,7 @@
 package com.livemory.livemory_api.offer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +13,8 @@ public interface PartnerOfferRepository extends JpaRepository<PartnerOffer, Long
     List<PartnerOffer> findByCategory(OfferCategory category);
 
     List<PartnerOffer> findByCategoryAndIsActive(OfferCategory category, Boolean isActive);
+
+    // Over every offer, active or not: deactivating or deleting one must change it too
+    @Query("SELECT new com.livemory.livemory_api.offer.OfferWatermark(MAX(o.updatedAt), COUNT(o)) FROM PartnerOffer o")
+    OfferWatermark findWatermark();
 }
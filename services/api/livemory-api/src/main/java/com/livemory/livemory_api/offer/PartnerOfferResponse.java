@@ -0,0 +1,38 @@
+package com.livemory.livemory_api.offer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PartnerOfferResponse(
+        Long id,
+        String title,
+        String description,
+        String partnerName,
+        OfferCategory category,
+        BigDecimal discountPercentage,
+        String location,
+        String websiteUrl,
+        String imageUrl,
+        Integer minGroupSize,
+        LocalDateTime validFrom,
+        LocalDateTime validUntil) {
+    public static PartnerOfferResponse from(PartnerOffer offer) {
+        return new PartnerOfferResponse(
+                offer.getId(),
+                offer.getTitle(),
+                offer.getDescription(),
+                offer.getPartnerName(),
+                offer.getCategory(),
+                offer.getDiscountPercentage(),
+                offer.getLocation(),
+                offer.getWebsiteUrl(),
+                offer.getImageUrl(),
+                offer.getMinGroupSize(),
+                offer.getValidFrom(),
+                offer.getValidUntil());
+    }
+
+    public boolean isValidAt(LocalDateTime at) {
+        return (validFrom == null || !validFrom.isAfter(at)) && (validUntil == null || !validUntil.isBefore(at));
+    }
+}
@@ -1,8 +1,12 @@
 package com.livemory.livemory_api.participant;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +23,19 @@ public interface ParticipantRepository extends JpaRepository<Participant, Long>
     boolean existsByUserIdAndEventId(Long userId, Long eventId);
 
     boolean existsByEventIdAndUserId(Long eventId, Long userId);
+
+    // One row per user (participants can be listed per step)
+    @Query("SELECT DISTINCT p.user.id FROM Participant p "
+            + "WHERE p.event.id = :eventId "
+            + "AND p.status <> com.livemory.livemory_api.participant.ParticipantStatus.DECLINED")
+    List<Long> findNotificationRecipientIdsByEventId(@Param("eventId") Long eventId);
+
+    // Returns 0 when the user already takes part in the event, for the whole event or a step
+    @Modifying
+    @Query(value = "INSERT INTO participants (user_id, event_id, role, status, created_at, updated_at) "
+            + "SELECT :userId, :eventId, :role, 'CONFIRMED', :now, :now "
+            + "WHERE NOT EXISTS (SELECT 1 FROM participants WHERE event_id = :eventId AND user_id = :userId) "
+            + "ON CONFLICT (event_id, user_id) WHERE step_id IS NULL DO NOTHING", nativeQuery = true)
+    int addEventParticipantIfAbsent(@Param("eventId") Long eventId, @Param("userId") Long userId,
+            @Param("role") String role, @Param("now") LocalDateTime now);
 }
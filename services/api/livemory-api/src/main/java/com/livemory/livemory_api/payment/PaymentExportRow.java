@@ -0,0 +1,16 @@
+package com.livemory.livemory_api.payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PaymentExportRow(
+        LocalDateTime paymentDate,
+        String paidByFirstName,
+        String paidByLastName,
+        BigDecimal amount,
+        PaymentCategory category,
+        String description) {
+    public String paidByName() {
+        return paidByFirstName + " " + paidByLastName;
+    }
+}
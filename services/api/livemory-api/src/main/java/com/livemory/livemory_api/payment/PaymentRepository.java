@@ -1,9 +1,15 @@
 package com.livemory.livemory_api.payment;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -12,4 +18,21 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByPaidById(Long userId);
 
     List<Payment> findByEventIdAndCategory(Long eventId, PaymentCategory category);
+
+    // Server-side cursor over a DTO projection: payer names come from the join, no entity is managed.
+    // Must be consumed inside a transaction and closed by the caller.
+    @Query("SELECT new com.livemory.livemory_api.payment.PaymentExportRow("
+            + "p.paymentDate, u.firstName, u.lastName, p.amount, p.category, p.description) "
+            + "FROM Payment p JOIN p.paidBy u WHERE p.event.id = :eventId ORDER BY p.paymentDate, p.id")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PaymentExportRow> streamExportRowsByEventId(@Param("eventId") Long eventId);
+
+    // Changes whenever a payment of the event is added, updated or deleted, or one of its payers is renamed
+    @Query("SELECT new com.livemory.livemory_api.payment.PaymentWatermark("
+            + "MAX(p.updatedAt), MAX(u.updatedAt), COUNT(p)) "
+            + "FROM Payment p JOIN p.paidBy u WHERE p.event.id = :eventId")
+    PaymentWatermark findWatermarkByEventId(@Param("eventId") Long eventId);
 }
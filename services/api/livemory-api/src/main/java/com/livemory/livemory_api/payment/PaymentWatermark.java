@@ -0,0 +1,9 @@
+package com.livemory.livemory_api.payment;
+
+import java.time.LocalDateTime;
+
+public record PaymentWatermark(
+        LocalDateTime lastUpdatedAt,
+        LocalDateTime lastPayerUpdatedAt,
+        Long count) {
+}
@@ -1,7 +1,11 @@
 package com.livemory.livemory_api.paymentlink;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PaymentLinkRepository extends JpaRepository<PaymentLink, Long> {
@@ -10,5 +14,17 @@ public interface PaymentLinkRepository extends JpaRepository<PaymentLink, Long>
 
     List<PaymentLink> findByBudgetId(Long budgetId);
 
-    List<PaymentLink> findByEventIdAndStatus(Long eventId, PaymentLinkStatus status);
+    // ACTIVE rows past expires_at are only marked EXPIRED by the next sweep: they are left out here already.
+    // Fetches what PaymentLinkResponse reads, the response is built outside the transaction.
+    @Query("SELECT p FROM PaymentLink p JOIN FETCH p.event JOIN FETCH p.createdBy WHERE p.event.id = :eventId "
+            + "AND p.status = com.livemory.livemory_api.paymentlink.PaymentLinkStatus.ACTIVE "
+            + "AND (p.expiresAt IS NULL OR p.expiresAt > :now)")
+    List<PaymentLink> findActiveByEventId(@Param("eventId") Long eventId, @Param("now") LocalDateTime now);
+
+    // At most :limit rows per call, skipping rows another transaction is changing
+    @Modifying
+    @Query(value = "UPDATE payment_links SET status = 'EXPIRED', updated_at = :now WHERE id IN ("
+            + "SELECT id FROM payment_links WHERE status = 'ACTIVE' AND expires_at < :now "
+            + "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int expireActive(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
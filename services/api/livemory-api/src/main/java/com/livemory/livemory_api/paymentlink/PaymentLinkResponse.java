@@ -31,7 +31,10 @@ public record PaymentLinkResponse(
                 paymentLink.getDescription(),
                 paymentLink.getCreatedBy().getId(),
                 createdByName,
-                paymentLink.getStatus(),
+                // Until the sweeper catches up with it
+                paymentLink.getStatus() == PaymentLinkStatus.ACTIVE && paymentLink.isExpired()
+                        ? PaymentLinkStatus.EXPIRED
+                        : paymentLink.getStatus(),
                 paymentLink.getExpiresAt(),
                 paymentLink.getCreatedAt());
     }
@@ -67,21 +67,14 @@ public class PaymentLinkService {
 
     @Transactional(readOnly = true)
     public List<PaymentLink> getActivePaymentLinks(Long eventId) {
-        return paymentLinkRepository.findByEventIdAndStatus(eventId, PaymentLinkStatus.ACTIVE);
+        return paymentLinkRepository.findActiveByEventId(eventId, LocalDateTime.now());
     }
 
     @Transactional(readOnly = true)
     public PaymentLink getPaymentLinkById(Long id) {
-        PaymentLink paymentLink = paymentLinkRepository.findById(id)
+        // Expired links are marked by ExpirySweeper, this stays a pure read
+        return paymentLinkRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Payment link not found"));
-
-        // Auto-expire if needed
-        if (paymentLink.isExpired() && paymentLink.getStatus() == PaymentLinkStatus.ACTIVE) {
-            paymentLink.setStatus(PaymentLinkStatus.EXPIRED);
-            paymentLinkRepository.save(paymentLink);
-        }
-
-        return paymentLink;
     }
 
     public void updateStatus(Long id, PaymentLinkStatus status) {
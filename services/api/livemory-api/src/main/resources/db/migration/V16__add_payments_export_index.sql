@@ -0,0 +1,5 @@
+-- Lets the export cursor read an event's payments in order without sorting them first
+CREATE INDEX idx_payments_event_date ON payments(event_id, payment_date, id);
+
+-- Covered by the composite index above
+DROP INDEX idx_payments_event;
@@ -0,0 +1,7 @@
+-- Keyset pagination of event listings on (created_at, id), newest first
+CREATE INDEX idx_events_created_at_id ON events(created_at, id);
+CREATE INDEX idx_events_created_by_created_at ON events(created_by_user_id, created_at, id);
+CREATE INDEX idx_events_type_created_at ON events(type, created_at, id);
+
+-- Covered by idx_events_created_by_created_at
+DROP INDEX idx_events_created_by;
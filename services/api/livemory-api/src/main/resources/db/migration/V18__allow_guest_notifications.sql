@@ -0,0 +1,2 @@
+-- Guest notifications have no user; check_user_or_guest already requires exactly one of the two
+ALTER TABLE notifications ALTER COLUMN user_id DROP NOT NULL;
@@ -0,0 +1,5 @@
+-- Unread notifications of a user (counts, listing, bulk read marking); read rows are not indexed
+CREATE INDEX idx_notifications_user_unread ON notifications(user_id, created_at) WHERE is_read = false;
+
+-- A plain index on a boolean is never selective enough to be used
+DROP INDEX idx_notifications_read;
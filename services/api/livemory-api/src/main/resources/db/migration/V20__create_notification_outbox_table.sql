@@ -0,0 +1,16 @@
+-- Create notification_outbox table: one row per notification and delivery channel, written in the
+-- same transaction as the notification and removed once delivered
+CREATE TABLE notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    notification_id BIGINT NOT NULL REFERENCES notifications(id) ON DELETE CASCADE,
+    channel VARCHAR(20) NOT NULL,  -- EMAIL, PUSH
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',  -- PENDING, FAILED
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Workers poll due rows in next_attempt_at order
+CREATE INDEX idx_notification_outbox_due ON notification_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_notification_outbox_notification ON notification_outbox(notification_id);
@@ -0,0 +1,85 @@
+-- Monthly range partitioning of notifications on created_at, so that old months can be dropped or
+-- archived as whole tables and per-user listings only read recent partitions.
+
+-- The primary key of a partitioned table must include the partition key, so notifications.id alone
+-- can no longer be referenced. Outbox rows are cleaned up by the application instead.
+ALTER TABLE notification_outbox DROP CONSTRAINT notification_outbox_notification_id_fkey;
+
+ALTER TABLE notifications RENAME TO notifications_old;
+ALTER INDEX notifications_pkey RENAME TO notifications_old_pkey;
+ALTER SEQUENCE notifications_id_seq OWNED BY NONE;
+
+CREATE TABLE notifications (
+    id BIGINT NOT NULL DEFAULT nextval('notifications_id_seq'),
+    user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+    guest_user_id BIGINT REFERENCES guest_users(id) ON DELETE CASCADE,
+    type VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    related_entity_type VARCHAR(50),
+    related_entity_id BIGINT,
+    action_url VARCHAR(500),
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    is_sent BOOLEAN NOT NULL DEFAULT FALSE,
+    sent_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at),
+    CONSTRAINT check_user_or_guest CHECK (
+        (user_id IS NOT NULL AND guest_user_id IS NULL) OR
+        (user_id IS NULL AND guest_user_id IS NOT NULL)
+    )
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside the existing months; create_notifications_partition moves them out
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+-- Creates the partition of the month containing p_month, if missing. Returns whether it was created.
+CREATE OR REPLACE FUNCTION create_notifications_partition(p_month DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    v_from DATE := date_trunc('month', p_month)::date;
+    v_to DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_name TEXT := 'notifications_p' || to_char(v_from, 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE notifications INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format('WITH moved AS (DELETE FROM notifications_default '
+            || 'WHERE created_at >= %L AND created_at < %L RETURNING *) '
+            || 'INSERT INTO %I SELECT * FROM moved', v_from, v_to, v_name);
+    EXECUTE format('ALTER TABLE notifications ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            v_name, v_from, v_to);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for the existing rows and the next three months
+DO $$
+DECLARE
+    v_month DATE := date_trunc('month', LEAST(COALESCE((SELECT MIN(created_at) FROM notifications_old), NOW()), NOW()))::date;
+BEGIN
+    WHILE v_month <= date_trunc('month', NOW() + INTERVAL '3 months') LOOP
+        PERFORM create_notifications_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO notifications (id, user_id, guest_user_id, type, title, message, related_entity_type,
+        related_entity_id, action_url, is_read, is_sent, sent_at, created_at)
+SELECT id, user_id, guest_user_id, type, title, message, related_entity_type,
+        related_entity_id, action_url, is_read, is_sent, sent_at, created_at
+FROM notifications_old;
+
+DROP TABLE notifications_old;
+ALTER SEQUENCE notifications_id_seq OWNED BY notifications.id;
+
+-- Indexes on the parent are created on every partition, including future ones
+CREATE INDEX idx_notifications_user ON notifications(user_id, created_at, id);
+CREATE INDEX idx_notifications_guest ON notifications(guest_user_id);
+CREATE INDEX idx_notifications_type ON notifications(type);
+CREATE INDEX idx_notifications_user_unread ON notifications(user_id, created_at) WHERE is_read = false;
+
+-- Detached partitions are moved here when the retention mode is ARCHIVE
+CREATE SCHEMA IF NOT EXISTS notifications_archive;
@@ -0,0 +1,2 @@
+-- Number of notifications merged into this row by the digest buffer (1 for a plain notification)
+ALTER TABLE notifications ADD COLUMN digest_count INT NOT NULL DEFAULT 1;
@@ -0,0 +1,5 @@
+-- Incremental reload of the invitation token filter
+CREATE INDEX idx_invitations_created_at ON invitations(created_at);
+
+-- Duplicate of the index behind the UNIQUE constraint on this column
+DROP INDEX IF EXISTS idx_invitations_token;
@@ -0,0 +1,4 @@
+-- Rows the expiry sweeper still has to visit; they leave the index once expired
+CREATE INDEX idx_invitations_pending_expiry ON invitations(expires_at) WHERE status = 'PENDING';
+CREATE INDEX idx_payment_links_active_expiry ON payment_links(expires_at)
+    WHERE status = 'ACTIVE' AND expires_at IS NOT NULL;
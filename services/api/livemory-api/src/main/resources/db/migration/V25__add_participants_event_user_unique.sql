@@ -0,0 +1,9 @@
+-- UNIQUE (user_id, event_id, step_id) does not apply to whole-event participants (step_id is NULL),
+-- so concurrent invitation accepts could add the same user twice. Keep the oldest row of each pair.
+DELETE FROM participants p
+USING participants older
+WHERE p.step_id IS NULL AND older.step_id IS NULL
+  AND p.event_id = older.event_id AND p.user_id = older.user_id
+  AND p.id > older.id;
+
+CREATE UNIQUE INDEX ux_participants_event_user ON participants(event_id, user_id) WHERE step_id IS NULL;
@@ -0,0 +1,5 @@
+-- Stale guest reaper: walks unconverted guests by last activity, oldest first
+CREATE INDEX idx_guest_users_stale ON guest_users(last_active_at, id) WHERE converted_to_user_id IS NULL;
+
+-- The reaper deletes in steady small chunks; vacuum sooner so freed space is reused instead of growing the table
+ALTER TABLE guest_users SET (autovacuum_vacuum_scale_factor = 0.05);
@@ -0,0 +1,2 @@
+-- Offer matching reads every upcoming event at once
+CREATE INDEX idx_events_start_date ON events(start_date);
@@ -0,0 +1,2 @@
+-- Guest tokens are resolved through the index behind the UNIQUE constraint; this one duplicated it
+DROP INDEX IF EXISTS idx_guest_users_token;
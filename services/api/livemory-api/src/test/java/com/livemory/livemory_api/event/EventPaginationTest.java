@@ -0,0 +1,132 @@
+package com.livemory.livemory_api.event;
+
+import com.livemory.livemory_api.user.User;
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Keyset pages of a creator's events against the real database, with many events sharing one
+ * created_at so that page boundaries fall inside a run of equal timestamps.
+ */
+@SpringBootTest
+class EventPaginationTest {
+
+    private static final LocalDateTime SHARED = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User creator;
+    private final List<Long> eventIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        creator = new User();
+        creator.setFirstName("Page");
+        creator.setLastName("Walker");
+        creator.setEmail("pages-" + UUID.randomUUID() + "@example.com");
+        creator = userRepository.save(creator);
+
+        // Seven events share a timestamp, one is newer and one older
+        for (int i = 0; i < 9; i++) {
+            LocalDateTime createdAt = i == 3 ? SHARED.plusSeconds(1) : i == 5 ? SHARED.minusNanos(1_000) : SHARED;
+            eventIds.add(jdbcTemplate.queryForObject("""
+                    INSERT INTO events (title, type, created_by_user_id, created_at, updated_at)
+                    VALUES (?, 'PARTY', ?, ?, ?)
+                    RETURNING id
+                    """, Long.class, "Event " + i, creator.getId(), Timestamp.valueOf(createdAt),
+                    Timestamp.valueOf(createdAt)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAllById(eventIds);
+        userRepository.delete(creator);
+    }
+
+    @Test
+    void pagesCoverEveryEventOnceInKeyOrder() {
+        for (int size = 1; size <= 10; size++) {
+            List<EventResponse> walked = walk(size);
+
+            assertThat(walked).as("page size %d", size).hasSize(eventIds.size());
+            assertThat(walked).extracting(EventResponse::id).as("page size %d", size)
+                    .doesNotHaveDuplicates()
+                    .containsExactlyInAnyOrderElementsOf(eventIds);
+            assertThat(walked).as("page size %d", size).isSortedAccordingTo(Comparator
+                    .comparing(EventResponse::createdAt).reversed()
+                    .thenComparing(Comparator.comparing(EventResponse::id).reversed()));
+        }
+    }
+
+    @Test
+    void newestAndOldestEventsAreAtTheEnds() {
+        List<EventResponse> walked = walk(4);
+
+        assertThat(walked.get(0).id()).isEqualTo(eventIds.get(3));
+        assertThat(walked.get(walked.size() - 1).id()).isEqualTo(eventIds.get(5));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        EventPage page = eventService.getEventsByCreator(creator.getId(), null, eventIds.size());
+
+        assertThat(page.items()).hasSize(eventIds.size());
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoCursor() {
+        EventPage first = eventService.getEventsByCreator(creator.getId(), null, eventIds.size() - 1);
+        EventPage second = eventService.getEventsByCreator(creator.getId(), first.nextCursor(), 1);
+
+        assertThat(second.items()).hasSize(1);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void invalidPageRequestsAreRejected() {
+        assertThatThrownBy(() -> eventService.getEventsByCreator(creator.getId(), null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> eventService.getEventsByCreator(creator.getId(), "garbage", 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private List<EventResponse> walk(int size) {
+        List<EventResponse> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            EventPage page = eventService.getEventsByCreator(creator.getId(), cursor, size);
+            assertThat(page.items().size()).isLessThanOrEqualTo(size);
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null && walked.size() <= eventIds.size());
+        return walked;
+    }
+}
@@ -0,0 +1,158 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.event.EventRepository;
+import com.livemory.livemory_api.user.User;
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ZIP archives over several events seeded in the real database, including events that cannot be
+ * exported.
+ */
+@SpringBootTest
+class BudgetArchiveServiceTest {
+
+    @Autowired
+    private BudgetExportService budgetExportService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path spoolDir;
+
+    private final List<Long> eventIds = new ArrayList<>();
+    private BudgetArchiveService archiveService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // Two threads, so at most four exports are in flight and the window has to slide
+        archiveService = new BudgetArchiveService(budgetExportService, eventRepository, spoolDir.toString(), 2, 10);
+
+        user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("archive-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiveService.shutdown();
+        Long[] ids = eventIds.toArray(Long[]::new);
+        jdbcTemplate.update("DELETE FROM budgets WHERE event_id = ANY (?)", (Object) ids);
+        jdbcTemplate.update("DELETE FROM events WHERE id = ANY (?)", (Object) ids);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void everyExportableEventHasAnEntry() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(createEvent("Event " + i, true));
+        }
+
+        Map<String, String> entries = archive(ids);
+
+        assertThat(entries.keySet()).containsExactlyInAnyOrderElementsOf(
+                ids.stream().map(id -> "budget_event_" + id + ".csv").toList());
+        ids.forEach(id -> assertThat(entries.get("budget_event_" + id + ".csv"))
+                .startsWith("\"Budget Export - Event " + ids.indexOf(id) + "\""));
+        assertThat(spoolFiles()).isEmpty();
+    }
+
+    @Test
+    void eventsThatCannotBeExportedAreListedInErrors() throws Exception {
+        Long exportable = createEvent("Avec budget", true);
+        Long withoutBudget = createEvent("Sans budget", false);
+        Long missing = -1L;
+
+        Map<String, String> entries = archive(List.of(withoutBudget, exportable, missing));
+
+        assertThat(entries.keySet()).containsExactlyInAnyOrder("budget_event_" + exportable + ".csv", "errors.txt");
+        assertThat(entries.get("errors.txt").lines()).containsExactlyInAnyOrder(
+                "Event " + withoutBudget + ": Budget not found for this event",
+                "Event -1: Event not found");
+        assertThat(spoolFiles()).isEmpty();
+    }
+
+    @Test
+    void archiveWithoutErrorsHasNoErrorsEntry() throws Exception {
+        Long exportable = createEvent("Avec budget", true);
+
+        assertThat(archive(List.of(exportable))).doesNotContainKey("errors.txt");
+    }
+
+    @Test
+    void eventsOfTheUserAreResolvedWhenNoneAreGiven() {
+        Long first = createEvent("Premier", true);
+        Long second = createEvent("Second", false);
+
+        assertThat(archiveService.resolveEventIds(user.getId(), null)).containsExactlyInAnyOrder(first, second);
+        assertThat(archiveService.resolveEventIds(user.getId(), List.of(second, second, first)))
+                .containsExactly(second, first);
+        assertThatThrownBy(() -> archiveService.resolveEventIds(null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Either userId or eventIds must be provided");
+    }
+
+    private Map<String, String> archive(List<Long> ids) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.exportArchive(ids, ExportFormat.CSV, out);
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private List<Path> spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            return files.toList();
+        }
+    }
+
+    private Long createEvent(String title, boolean withBudget) {
+        Long id = jdbcTemplate.queryForObject("INSERT INTO events (title, type, created_by_user_id) "
+                + "VALUES (?, 'PARTY', ?) RETURNING id", Long.class, title, user.getId());
+        eventIds.add(id);
+        if (withBudget) {
+            jdbcTemplate.update("INSERT INTO budgets (event_id, total_budget) VALUES (?, 500)", id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,97 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.budget.Budget;
+import com.livemory.livemory_api.event.Event;
+import com.livemory.livemory_api.payment.PaymentCategory;
+import com.livemory.livemory_api.payment.PaymentExportRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the three export renderers over in-memory rows (no database).
+ * Run with: mvn -Pbenchmark test -DskipTests -Dbenchmark=BudgetExportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgs = { "-Xmx256m" })
+public class BudgetExportBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int payments;
+
+    private final CsvBudgetExporter csvExporter = new CsvBudgetExporter();
+    private final ExcelBudgetExporter excelExporter = new ExcelBudgetExporter();
+    private final PdfBudgetExporter pdfExporter = new PdfBudgetExporter();
+
+    private Event event;
+    private Budget budget;
+    private List<PaymentExportRow> rows;
+
+    @Setup
+    public void setUp() {
+        event = new Event();
+        event.setTitle("Week-end à la montagne");
+
+        budget = new Budget();
+        budget.setTotalBudget(new BigDecimal("25000.00"));
+        budget.setTotalSpent(new BigDecimal("18342.50"));
+
+        PaymentCategory[] categories = PaymentCategory.values();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        rows = new ArrayList<>(payments);
+        for (int i = 0; i < payments; i++) {
+            rows.add(new PaymentExportRow(
+                    start.plusMinutes(i * 17L),
+                    "Prénom" + (i % 40),
+                    "Nom" + (i % 40),
+                    BigDecimal.valueOf(1000 + i % 9000, 2),
+                    categories[i % categories.length],
+                    "Dépense partagée n°" + i));
+        }
+    }
+
+    @Benchmark
+    public long csv() throws IOException {
+        return render(csvExporter);
+    }
+
+    @Benchmark
+    public long excel() throws IOException {
+        return render(excelExporter);
+    }
+
+    @Benchmark
+    public long pdf() throws IOException {
+        return render(pdfExporter);
+    }
+
+    private long render(BudgetExporter exporter) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        exporter.write(event, budget, rows.iterator(), out);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.user.User;
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Streamed CSV output and the export watermark, against an event seeded in the real database.
+ */
+@SpringBootTest
+class BudgetExportServiceTest {
+
+    private static final LocalDateTime FIRST_PAYMENT = LocalDateTime.of(2025, 3, 14, 19, 30);
+
+    @Autowired
+    private BudgetExportService budgetExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> eventIds = new ArrayList<>();
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = createUser("Alice", "Martin");
+        bob = createUser("Bob", "Durand");
+    }
+
+    @AfterEach
+    void tearDown() {
+        Long[] ids = eventIds.toArray(Long[]::new);
+        jdbcTemplate.update("DELETE FROM payments WHERE event_id = ANY (?)", (Object) ids);
+        jdbcTemplate.update("DELETE FROM budgets WHERE event_id = ANY (?)", (Object) ids);
+        jdbcTemplate.update("DELETE FROM events WHERE id = ANY (?)", (Object) ids);
+        userRepository.delete(alice);
+        userRepository.delete(bob);
+    }
+
+    @Test
+    void csvListsTheBudgetSummaryThenPaymentsInDateOrder() throws Exception {
+        Long eventId = createEvent("Week-end à la mer");
+        createBudget(eventId, "1000.00", "245.50");
+        // Inserted out of order: the export sorts by payment date
+        createPayment(eventId, bob, "120.00", "FOOD", "Courses", FIRST_PAYMENT.plusDays(1));
+        createPayment(eventId, alice, "125.50", "ACCOMMODATION", "Gîte, acompte", FIRST_PAYMENT);
+
+        assertThat(export(eventId)).containsExactly(
+                "\"Budget Export - Week-end à la mer\"",
+                "",
+                "\"Budget Total\",\"1000.00\"",
+                "\"Total Dépensé\",\"245.50\"",
+                "\"Reste\",\"754.50\"",
+                "",
+                "\"Date\",\"Payeur\",\"Montant\",\"Catégorie\",\"Description\"",
+                "\"14/03/2025 19:30\",\"Alice Martin\",\"125.50\",\"ACCOMMODATION\",\"Gîte, acompte\"",
+                "\"15/03/2025 19:30\",\"Bob Durand\",\"120.00\",\"FOOD\",\"Courses\"");
+    }
+
+    @Test
+    void eventWithoutPaymentsHasOnlyTheSummary() throws Exception {
+        Long eventId = createEvent("Anniversaire");
+        createBudget(eventId, "300.00", "0.00");
+
+        assertThat(export(eventId))
+                .hasSize(7)
+                .last().isEqualTo("\"Date\",\"Payeur\",\"Montant\",\"Catégorie\",\"Description\"");
+    }
+
+    @Test
+    void eventWithoutBudgetCannotBeExported() {
+        Long eventId = createEvent("Sans budget");
+
+        assertThatThrownBy(() -> export(eventId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Budget not found for this event");
+    }
+
+    @Test
+    void watermarkChangesWithPaymentsAndPayerNames() {
+        Long eventId = createEvent("Week-end à la mer");
+        createBudget(eventId, "1000.00", "0.00");
+        createPayment(eventId, alice, "125.50", "FOOD", "Courses", FIRST_PAYMENT);
+        String initial = budgetExportService.exportWatermark(eventId);
+        assertThat(budgetExportService.exportWatermark(eventId)).isEqualTo(initial);
+
+        createPayment(eventId, bob, "20.00", "FOOD", "Pain", FIRST_PAYMENT.plusHours(1));
+        String afterPayment = budgetExportService.exportWatermark(eventId);
+        assertThat(afterPayment).isNotEqualTo(initial);
+
+        alice.setFirstName("Alicia");
+        alice = userRepository.saveAndFlush(alice);
+        assertThat(budgetExportService.exportWatermark(eventId)).isNotEqualTo(afterPayment);
+    }
+
+    private List<String> export(Long eventId) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        budgetExportService.exportBudget(eventId, ExportFormat.CSV, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private User createUser(String firstName, String lastName) {
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail("export-" + UUID.randomUUID() + "@example.com");
+        return userRepository.save(user);
+    }
+
+    private Long createEvent(String title) {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO events (title, type, created_by_user_id)
+                VALUES (?, 'PARTY', ?)
+                RETURNING id
+                """, Long.class, title, alice.getId());
+        eventIds.add(id);
+        return id;
+    }
+
+    private void createBudget(Long eventId, String total, String spent) {
+        jdbcTemplate.update("INSERT INTO budgets (event_id, total_budget, total_spent) VALUES (?, ?, ?)",
+                eventId, new BigDecimal(total), new BigDecimal(spent));
+    }
+
+    private void createPayment(Long eventId, User payer, String amount, String category, String description,
+            LocalDateTime paymentDate) {
+        jdbcTemplate.update("""
+                INSERT INTO payments (event_id, paid_by_user_id, amount, description, category, payment_date)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, eventId, payer.getId(), new BigDecimal(amount), description, category,
+                Timestamp.valueOf(paymentDate));
+    }
+}
@@ -0,0 +1,163 @@
+package com.livemory.livemory_api.export;
+
+import com.livemory.livemory_api.user.User;
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reuse, supersede and eviction of background export jobs. Each test runs its own service over a
+ * temporary spool directory, and drives clean-up by hand.
+ */
+@SpringBootTest
+class ExportJobServiceTest {
+
+    @Autowired
+    private BudgetExportService budgetExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path spoolDir;
+
+    private final List<ExportJobService> services = new ArrayList<>();
+    private User user;
+    private Long eventId;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("export-job-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.save(user);
+
+        eventId = jdbcTemplate.queryForObject("INSERT INTO events (title, type, created_by_user_id) "
+                + "VALUES ('Export', 'PARTY', ?) RETURNING id", Long.class, user.getId());
+        jdbcTemplate.update("INSERT INTO budgets (event_id, total_budget) VALUES (?, 500)", eventId);
+        addPayment();
+    }
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(ExportJobService::shutdown);
+        jdbcTemplate.update("DELETE FROM payments WHERE event_id = ?", eventId);
+        jdbcTemplate.update("DELETE FROM budgets WHERE event_id = ?", eventId);
+        jdbcTemplate.update("DELETE FROM events WHERE id = ?", eventId);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void unchangedBudgetReusesTheFinishedJob() throws Exception {
+        ExportJobService service = service(Duration.ofHours(6));
+        ExportJob job = awaitCompleted(service.submit(eventId, ExportFormat.CSV));
+
+        assertThat(service.submit(eventId, ExportFormat.CSV)).isSameAs(job);
+        assertThat(job.getFile()).exists();
+        assertThat(Files.readString(job.getFile())).contains("Budget Export - Export");
+    }
+
+    @Test
+    void eachFormatHasItsOwnJob() throws Exception {
+        ExportJobService service = service(Duration.ofHours(6));
+        ExportJob csv = awaitCompleted(service.submit(eventId, ExportFormat.CSV));
+        ExportJob excel = awaitCompleted(service.submit(eventId, ExportFormat.EXCEL));
+
+        assertThat(excel).isNotSameAs(csv);
+        assertThat(service.submit(eventId, ExportFormat.CSV)).isSameAs(csv);
+        assertThat(csv.getFile()).exists();
+    }
+
+    @Test
+    void changedBudgetSupersedesTheJobAndDeletesItsFile() throws Exception {
+        ExportJobService service = service(Duration.ofHours(6));
+        ExportJob old = awaitCompleted(service.submit(eventId, ExportFormat.CSV));
+
+        addPayment();
+        ExportJob latest = awaitCompleted(service.submit(eventId, ExportFormat.CSV));
+
+        assertThat(latest).isNotSameAs(old);
+        assertThatThrownBy(() -> service.getJob(old.getId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Export job not found");
+        // Kept until the download grace has passed, which is immediately here
+        assertThat(old.getFile()).exists();
+        service.cleanUp();
+        assertThat(old.getFile()).doesNotExist();
+        assertThat(latest.getFile()).exists();
+    }
+
+    @Test
+    void jobsOlderThanTheMaximumAgeAreForgotten() throws Exception {
+        ExportJobService service = service(Duration.ZERO);
+        ExportJob job = awaitCompleted(service.submit(eventId, ExportFormat.CSV));
+
+        service.cleanUp();
+        assertThatThrownBy(() -> service.getJob(job.getId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Export job not found");
+        service.cleanUp();
+        assertThat(job.getFile()).doesNotExist();
+
+        // Nothing is left to reuse
+        assertThat(service.submit(eventId, ExportFormat.CSV)).isNotSameAs(job);
+    }
+
+    @Test
+    void unreferencedSpoolFilesAreDeletedOnlyOnceOld() throws Exception {
+        ExportJobService service = service(Duration.ofHours(6));
+        Path recent = Files.createFile(spoolDir.resolve("recent.csv"));
+        Path old = Files.createFile(spoolDir.resolve("old.csv"));
+        Files.setLastModifiedTime(old, FileTime.from(Instant.now().minus(Duration.ofHours(7))));
+
+        service.cleanUp();
+
+        assertThat(recent).exists();
+        assertThat(old).doesNotExist();
+    }
+
+    private ExportJobService service(Duration maxAge) {
+        ExportJobService service = new ExportJobService(budgetExportService, spoolDir.toString(), 2, 10, maxAge,
+                Duration.ZERO);
+        services.add(service);
+        return service;
+    }
+
+    private ExportJob awaitCompleted(ExportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (job.getCompletedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getStatus()).as("status of %s (%s)", job.getId(), job.getError())
+                .isEqualTo(ExportJobStatus.COMPLETED);
+        return job;
+    }
+
+    private void addPayment() {
+        jdbcTemplate.update("INSERT INTO payments (event_id, paid_by_user_id, amount, description, category, "
+                + "payment_date) VALUES (?, ?, ?, 'Courses', 'FOOD', now())", eventId, user.getId(),
+                new BigDecimal("12.50"));
+    }
+}
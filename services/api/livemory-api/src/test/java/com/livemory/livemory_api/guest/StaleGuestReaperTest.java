@@ -0,0 +1,224 @@
+package com.livemory.livemory_api.guest;
+
+import com.livemory.livemory_api.notification.CreateNotificationRequest;
+import com.livemory.livemory_api.notification.NotificationService;
+import com.livemory.livemory_api.notification.NotificationType;
+import com.livemory.livemory_api.user.User;
+import com.livemory.livemory_api.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Chunked deletion of stale guests against the real database, with chunk boundaries falling inside
+ * runs of equal last_active_at.
+ */
+@SpringBootTest
+class StaleGuestReaperTest {
+
+    private static final Duration HORIZON = Duration.ofDays(90);
+    private static final int CHUNK_SIZE = 3;
+    // Older than anything other tests leave behind, so only this test's guests are stale
+    private static final LocalDateTime STALE = LocalDateTime.now().minus(HORIZON).minusYears(20).withNano(0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final GuestSessionCache sessionCache = mock(GuestSessionCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Long> guestIds = new ArrayList<>();
+    private final Map<Long, String> tokens = new HashMap<>();
+    private JdbcTemplate claims;
+    private StaleGuestReaper reaper;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        claims = spy(jdbcTemplate);
+        reaper = new StaleGuestReaper(claims, transactionManager, sessionCache, meterRegistry, HORIZON,
+                CHUNK_SIZE, Duration.ZERO);
+
+        user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("reaper-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Long[] ids = guestIds.toArray(Long[]::new);
+        jdbcTemplate.update("DELETE FROM notification_outbox o USING notifications n "
+                + "WHERE o.notification_id = n.id AND n.guest_user_id = ANY (?)", (Object) ids);
+        jdbcTemplate.update("DELETE FROM notifications WHERE guest_user_id = ANY (?)", (Object) ids);
+        jdbcTemplate.update("DELETE FROM guest_users WHERE id = ANY (?)", (Object) ids);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void staleGuestsAreDeletedOldestFirstAcrossEqualTimestamps() throws Exception {
+        // Seven guests share a timestamp, so chunks of three split them twice
+        List<Long> stale = new ArrayList<>();
+        stale.add(insertGuest(STALE.minusDays(1), null));
+        for (int i = 0; i < 7; i++) {
+            stale.add(insertGuest(STALE, null));
+        }
+        stale.add(insertGuest(STALE.plusDays(1), null));
+        Long recent = insertGuest(LocalDateTime.now().minusDays(1), null);
+        Long converted = insertGuest(STALE, user.getId());
+
+        assertThat(reaper.reap()).isEqualTo(stale.size());
+
+        assertThat(existing()).containsExactlyInAnyOrder(recent, converted);
+        // Nine stale guests: three full chunks, then an empty claim
+        verify(claims, times(4)).query(argThat((String sql) -> sql.contains("SKIP LOCKED")), any(RowMapper.class),
+                any(Object[].class));
+        ArgumentCaptor<String> invalidated = ArgumentCaptor.forClass(String.class);
+        verify(sessionCache, times(stale.size())).invalidate(invalidated.capture());
+        assertThat(invalidated.getAllValues()).containsExactlyElementsOf(stale.stream().map(tokens::get).toList());
+        assertThat(meterRegistry.counter("guests.reaper.deleted").count()).isEqualTo(stale.size());
+    }
+
+    @Test
+    void shortChunkEndsThePass() throws Exception {
+        for (int i = 0; i < CHUNK_SIZE + 1; i++) {
+            insertGuest(STALE, null);
+        }
+
+        assertThat(reaper.reap()).isEqualTo(CHUNK_SIZE + 1);
+
+        verify(claims, times(2)).query(argThat((String sql) -> sql.contains("SKIP LOCKED")), any(RowMapper.class),
+                any(Object[].class));
+        assertThat(existing()).isEmpty();
+    }
+
+    @Test
+    void notificationsAndDeliveriesOfStaleGuestsAreDeleted() throws Exception {
+        Long stale = insertGuest(STALE, null);
+        Long recent = insertGuest(LocalDateTime.now(), null);
+        Long staleNotification = notifyGuest(stale);
+        Long recentNotification = notifyGuest(recent);
+
+        assertThat(reaper.reap()).isEqualTo(1);
+
+        assertThat(count("SELECT COUNT(*) FROM notifications WHERE id = ?", staleNotification)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM notification_outbox WHERE notification_id = ?", staleNotification))
+                .isZero();
+        assertThat(count("SELECT COUNT(*) FROM notifications WHERE id = ?", recentNotification)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM notification_outbox WHERE notification_id = ?", recentNotification))
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter("guests.reaper.notifications.deleted").count()).isEqualTo(1);
+    }
+
+    @Test
+    void guestLockedByAnotherTransactionIsSkipped() throws Exception {
+        List<Long> stale = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stale.add(insertGuest(STALE, null));
+        }
+        Long locked = stale.get(1);
+        CountDownLatch lockHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = other.submit(() -> new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> {
+                        jdbcTemplate.queryForList("SELECT id FROM guest_users WHERE id = ? FOR UPDATE", locked);
+                        lockHeld.countDown();
+                        try {
+                            release.await(30, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertThat(lockHeld.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(reaper.reap()).isEqualTo(stale.size() - 1);
+
+            assertThat(existing()).containsExactly(locked);
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    void nothingStaleMeansASingleClaim() throws Exception {
+        Long recent = insertGuest(LocalDateTime.now(), null);
+
+        assertThat(reaper.reap()).isZero();
+
+        verify(claims, times(1)).query(argThat((String sql) -> sql.contains("SKIP LOCKED")), any(RowMapper.class),
+                any(Object[].class));
+        assertThat(existing()).containsExactly(recent);
+        verifyNoInteractions(sessionCache);
+    }
+
+    private Long insertGuest(LocalDateTime lastActiveAt, Long convertedToUserId) {
+        String token = UUID.randomUUID().toString();
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO guest_users (guest_token, name, email, last_active_at, converted_to_user_id)
+                VALUES (?, 'Guest', 'guest@example.com', ?, ?)
+                RETURNING id
+                """, Long.class, token, Timestamp.valueOf(lastActiveAt), convertedToUserId);
+        guestIds.add(id);
+        tokens.put(id, token);
+        return id;
+    }
+
+    private Long notifyGuest(Long guestId) {
+        return notificationService.createNotification(new CreateNotificationRequest(null, guestId,
+                NotificationType.EVENT_REMINDER, "Reminder", "Your event starts soon", null, null, null)).getId();
+    }
+
+    private List<Long> existing() {
+        return jdbcTemplate.queryForList("SELECT id FROM guest_users WHERE id = ANY (?)", Long.class,
+                (Object) guestIds.toArray(Long[]::new));
+    }
+
+    private long count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}
@@ -0,0 +1,55 @@
+package com.livemory.livemory_api.invitation;
+
+import com.opencsv.CSVReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkInvitationCsvTest {
+
+    @Test
+    void headerAndBlankLinesAreSkipped() {
+        List<BulkInvitee> invitees = read("""
+                Email,Phone
+                alice@example.com,+33612345678
+
+                bob@example.com
+                ,0612345678
+                "carol@example.com",""
+                """);
+
+        assertThat(invitees).containsExactly(
+                new BulkInvitee("alice@example.com", "+33612345678"),
+                new BulkInvitee("bob@example.com", null),
+                new BulkInvitee(null, "0612345678"),
+                new BulkInvitee("carol@example.com", null));
+    }
+
+    @Test
+    void firstLineIsDataWithoutHeader() {
+        assertThat(read("alice@example.com,\nemail@example.com,\n")).containsExactly(
+                new BulkInvitee("alice@example.com", null),
+                new BulkInvitee("email@example.com", null));
+    }
+
+    @Test
+    void emptyUploadHasNoInvitees() {
+        Iterator<BulkInvitee> invitees = BulkInvitationCsv.invitees(new CSVReader(new StringReader("email,phone\n\n")));
+
+        assertThat(invitees.hasNext()).isFalse();
+        assertThatThrownBy(invitees::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    private static List<BulkInvitee> read(String csv) {
+        List<BulkInvitee> invitees = new ArrayList<>();
+        BulkInvitationCsv.invitees(new CSVReader(new StringReader(csv))).forEachRemaining(invitees::add);
+        return invitees;
+    }
+}
@@ -0,0 +1,159 @@
+package com.livemory.livemory_api.invitation;
+
+import com.livemory.livemory_api.event.EventRepository;
+import com.livemory.livemory_api.group.GroupRepository;
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Chunking, deduplication and the row limit of bulk invitations, against mocked storage.
+ */
+class BulkInvitationServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int MAX_ROWS = 5;
+    private static final BulkInvitationTarget TARGET = new BulkInvitationTarget(7L, null, 1L, "MEMBER",
+            LocalDateTime.now().plusDays(7));
+
+    private final InvitationRepository invitationRepository = mock(InvitationRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<List<BulkInvitationResult>> chunks = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private BulkInvitationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(invitationRepository.findPendingGroupInvitees(eq(7L), any(), any())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            batchSizes.add(((List<?>) invocation.getArgument(1)).size());
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        service = new BulkInvitationService(invitationRepository, mock(GroupRepository.class),
+                mock(EventRepository.class), mock(UserRepository.class), mock(InvitationTokenFilter.class),
+                jdbcTemplate, mock(PlatformTransactionManager.class), "http://localhost", CHUNK_SIZE, MAX_ROWS);
+    }
+
+    @Test
+    void rowsAreHandledInChunksAndInOrder() {
+        service.createInvitations(TARGET, invitees(5).iterator(), chunks::add);
+
+        assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(results()).extracting(BulkInvitationResult::row).containsExactly(1, 2, 3, 4, 5);
+        assertThat(results()).extracting(BulkInvitationResult::status).containsOnly(BulkInvitationStatus.CREATED);
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void duplicatesAcrossChunksAreDetectedAfterNormalization() {
+        List<BulkInvitee> invitees = List.of(
+                new BulkInvitee("Alice@Example.com", null),
+                new BulkInvitee(null, "+33 6 12-34-56-78"),
+                new BulkInvitee(" alice@example.com ", null),
+                new BulkInvitee("bob@example.com", "+33612345678"),
+                new BulkInvitee("not an email", "12"));
+
+        service.createInvitations(TARGET, invitees.iterator(), chunks::add);
+
+        assertThat(results()).extracting(BulkInvitationResult::status).containsExactly(
+                BulkInvitationStatus.CREATED,
+                BulkInvitationStatus.CREATED,
+                BulkInvitationStatus.DUPLICATE,
+                BulkInvitationStatus.DUPLICATE,
+                BulkInvitationStatus.INVALID);
+        assertThat(results().get(2).error()).isEqualTo("Duplicate row");
+        assertThat(batchSizes).containsExactly(2);
+    }
+
+    @Test
+    void pendingInvitationsAreLookedUpWithNormalizedKeys() {
+        when(invitationRepository.findPendingGroupInvitees(eq(7L), any(), any())).thenAnswer(invocation -> {
+            Collection<?> phones = invocation.getArgument(2);
+            return phones.contains("+33612345678") ? List.of(new BulkInvitee(null, "+33612345678")) : List.of();
+        });
+
+        service.createInvitations(TARGET, List.of(
+                new BulkInvitee("carol@example.com", null),
+                new BulkInvitee(null, "+33 (6) 12.34.56.78")).iterator(), chunks::add);
+
+        assertThat(results()).extracting(BulkInvitationResult::status)
+                .containsExactly(BulkInvitationStatus.CREATED, BulkInvitationStatus.DUPLICATE);
+        assertThat(results().get(1).error()).isEqualTo("Already invited");
+        assertThat(results().get(1).phone()).isEqualTo("+33 (6) 12.34.56.78");
+    }
+
+    @Test
+    void readingStopsAtTheRowLimitWithASingleError() {
+        AtomicInteger read = new AtomicInteger();
+        Iterator<BulkInvitee> unbounded = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public BulkInvitee next() {
+                return new BulkInvitee("user" + read.incrementAndGet() + "@example.com", null);
+            }
+        };
+
+        service.createInvitations(TARGET, unbounded, chunks::add);
+
+        assertThat(read).hasValue(MAX_ROWS);
+        assertThat(results()).hasSize(MAX_ROWS + 1);
+        BulkInvitationResult last = results().get(MAX_ROWS);
+        assertThat(last.row()).isEqualTo(MAX_ROWS + 1);
+        assertThat(last.status()).isEqualTo(BulkInvitationStatus.INVALID);
+        assertThat(results().subList(0, MAX_ROWS)).extracting(BulkInvitationResult::status)
+                .containsOnly(BulkInvitationStatus.CREATED);
+    }
+
+    @Test
+    void listAtTheRowLimitIsNotTruncated() {
+        service.createInvitations(TARGET, invitees(MAX_ROWS).iterator(), chunks::add);
+
+        assertThat(results()).hasSize(MAX_ROWS);
+        assertThat(results()).extracting(BulkInvitationResult::status).containsOnly(BulkInvitationStatus.CREATED);
+    }
+
+    @Test
+    void chunkWithoutValidRowsIsNotLookedUp() {
+        service.createInvitations(TARGET, List.of(new BulkInvitee(null, null), new BulkInvitee(" ", "abc"))
+                .iterator(), chunks::add);
+
+        assertThat(results()).extracting(BulkInvitationResult::status).containsOnly(BulkInvitationStatus.INVALID);
+        verify(invitationRepository, never()).findPendingGroupInvitees(any(), any(), any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private List<BulkInvitationResult> results() {
+        return chunks.stream().flatMap(List::stream).toList();
+    }
+
+    private static List<BulkInvitee> invitees(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new BulkInvitee("user" + i + "@example.com", null))
+                .toList();
+    }
+}
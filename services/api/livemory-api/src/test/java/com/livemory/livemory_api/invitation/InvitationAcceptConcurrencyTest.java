@@ -0,0 +1,144 @@
+package com.livemory.livemory_api.invitation;
+
+import com.livemory.livemory_api.group.CreateGroupRequest;
+import com.livemory.livemory_api.group.Group;
+import com.livemory.livemory_api.group.GroupMemberRepository;
+import com.livemory.livemory_api.group.GroupRepository;
+import com.livemory.livemory_api.group.GroupService;
+import com.livemory.livemory_api.user.User;
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of simultaneous accepts of one invitation link, against the real database.
+ */
+@SpringBootTest
+class InvitationAcceptConcurrencyTest {
+
+    private static final int CLICKS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private InvitationService invitationService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private InvitationRepository invitationRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private Group group;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User owner = createUser();
+        group = groupService.createGroup(new CreateGroupRequest("Concurrency", null), owner.getId());
+        token = invitationService.createInvitation(new CreateInvitationRequest(group.getId(), null, owner.getId(),
+                null, null, "MEMBER", 7)).getToken();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Members and invitations go with the group
+        groupRepository.deleteById(group.getId());
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void sameUserClickingManyTimesJoinsOnce() throws Exception {
+        User invitee = createUser();
+
+        List<Throwable> failures = clickConcurrently(i -> invitee);
+
+        assertThat(failures).isEmpty();
+        assertThat(groupMemberRepository.findByGroupIdAndUserId(group.getId(), invitee.getId())).isPresent();
+        assertThat(groupMemberRepository.findByGroupId(group.getId())).hasSize(2);
+        Invitation invitation = invitationRepository.findByToken(token).orElseThrow();
+        assertThat(invitation.getStatus()).isEqualTo(InvitationStatus.ACCEPTED);
+    }
+
+    @Test
+    void onlyOneOfManyUsersWinsTheInvitation() throws Exception {
+        List<User> invitees = new ArrayList<>();
+        for (int i = 0; i < CLICKS; i++) {
+            invitees.add(createUser());
+        }
+
+        List<Throwable> failures = clickConcurrently(invitees::get);
+
+        assertThat(failures).hasSize(CLICKS - 1)
+                .allSatisfy(failure -> assertThat(failure)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessage("Invitation is not pending"));
+        assertThat(groupMemberRepository.findByGroupId(group.getId())).hasSize(2);
+    }
+
+    private List<Throwable> clickConcurrently(IntFunction<User> clicker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> clicks = new ArrayList<>();
+            for (int i = 0; i < CLICKS; i++) {
+                Long userId = clicker.apply(i).getId();
+                Callable<Void> click = () -> {
+                    start.await();
+                    invitationService.acceptInvitation(new AcceptInvitationRequest(token, userId));
+                    return null;
+                };
+                clicks.add(executor.submit(click));
+            }
+            start.countDown();
+
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<?> click : clicks) {
+                try {
+                    click.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("accept-" + UUID.randomUUID() + "@example.com");
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,127 @@
+package com.livemory.livemory_api.invitation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Loading, incremental reloads and index lookups of the token filter, against a mocked JdbcTemplate.
+ */
+class InvitationTokenFilterTest {
+
+    private static final String FULL_LOAD = "SELECT token FROM invitations";
+    private static final String INCREMENTAL_LOAD = "SELECT token FROM invitations WHERE created_at >= ?";
+    private static final String LOOKUP = "SELECT EXISTS (SELECT 1 FROM invitations WHERE token = ?)";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<String> table = new ArrayList<>();
+    private final List<Timestamp> reloadsSince = new ArrayList<>();
+
+    @Test
+    void tokensAreLoadedOnFirstUse() {
+        table.add("existing");
+        InvitationTokenFilter filter = filter(Duration.ofHours(1), 10);
+
+        assertThat(filter.mightExist("existing")).isTrue();
+        assertThat(filter.mightExist("existing")).isTrue();
+
+        verify(jdbcTemplate, times(1)).query(eq(FULL_LOAD), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void reloadStartsBeforeThePreviousOneToCoverLateCommits() {
+        InvitationTokenFilter filter = filter(Duration.ZERO, 10);
+        LocalDateTime beforeFirstLoad = LocalDateTime.now();
+        filter.mightExist("unknown");
+        LocalDateTime afterFirstLoad = LocalDateTime.now();
+
+        table.add("created elsewhere");
+        assertThat(filter.mightExist("created elsewhere")).isTrue();
+
+        // The last reload started a minute before the one made during the first call
+        assertThat(reloadsSince).isNotEmpty();
+        LocalDateTime since = reloadsSince.get(reloadsSince.size() - 1).toLocalDateTime();
+        assertThat(since).isBetween(beforeFirstLoad.minusMinutes(1), afterFirstLoad.minusMinutes(1));
+    }
+
+    @Test
+    void throttledMissIsLookedUpOnTheIndex() {
+        InvitationTokenFilter filter = filter(Duration.ofHours(1), 10);
+        filter.mightExist("unknown");
+
+        table.add("created elsewhere");
+        assertThat(filter.mightExist("created elsewhere")).isTrue();
+        assertThat(filter.mightExist("still unknown")).isFalse();
+
+        verify(jdbcTemplate, never()).query(eq(INCREMENTAL_LOAD), any(RowCallbackHandler.class), any());
+        verify(jdbcTemplate, times(3)).queryForObject(eq(LOOKUP), eq(Boolean.class), anyString());
+
+        // Found once, the token is in the filter from then on
+        assertThat(filter.mightExist("created elsewhere")).isTrue();
+        verify(jdbcTemplate, times(3)).queryForObject(eq(LOOKUP), eq(Boolean.class), anyString());
+    }
+
+    @Test
+    void lookupsAreLimitedPerInterval() {
+        InvitationTokenFilter filter = filter(Duration.ofHours(1), 3);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(filter.mightExist("guess-" + i)).isFalse();
+        }
+
+        verify(jdbcTemplate, times(3)).queryForObject(eq(LOOKUP), eq(Boolean.class), anyString());
+    }
+
+    @Test
+    void addedTokensNeedNoQuery() {
+        InvitationTokenFilter filter = filter(Duration.ofHours(1), 10);
+        filter.mightExist("unknown");
+
+        filter.add("created here");
+
+        assertThat(filter.mightExist("created here")).isTrue();
+        verify(jdbcTemplate, times(1)).queryForObject(eq(LOOKUP), eq(Boolean.class), anyString());
+    }
+
+    private InvitationTokenFilter filter(Duration refreshInterval, int maxMissLookups) {
+        doAnswer(invocation -> {
+            feed(invocation.getArgument(1));
+            return null;
+        }).when(jdbcTemplate).query(eq(FULL_LOAD), any(RowCallbackHandler.class));
+        doAnswer(invocation -> {
+            reloadsSince.add(invocation.getArgument(2));
+            feed(invocation.getArgument(1));
+            return null;
+        }).when(jdbcTemplate).query(eq(INCREMENTAL_LOAD), any(RowCallbackHandler.class), any());
+        when(jdbcTemplate.queryForObject(eq(LOOKUP), eq(Boolean.class), anyString()))
+                .thenAnswer(invocation -> table.contains(invocation.<String>getArgument(2)));
+        return new InvitationTokenFilter(jdbcTemplate, 1_000, 0.001, refreshInterval, maxMissLookups);
+    }
+
+    private void feed(RowCallbackHandler handler) throws SQLException {
+        for (String token : List.copyOf(table)) {
+            ResultSet row = mock(ResultSet.class);
+            when(row.getString(1)).thenReturn(token);
+            handler.processRow(row);
+        }
+    }
+}
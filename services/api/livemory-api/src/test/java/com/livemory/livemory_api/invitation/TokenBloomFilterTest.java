@@ -0,0 +1,57 @@
+package com.livemory.livemory_api.invitation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBloomFilterTest {
+
+    @Test
+    void addedTokensAreAlwaysFound() {
+        TokenBloomFilter filter = new TokenBloomFilter(10_000, 0.01);
+        // Three times the expected count: the false positive rate degrades, false negatives stay impossible
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            String token = UUID.randomUUID().toString().replace("-", "");
+            filter.put(token);
+            added.add(token);
+        }
+
+        assertThat(added).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() {
+        TokenBloomFilter filter = new TokenBloomFilter(100_000, 0.01);
+        List<String> added = IntStream.range(0, 100_000).mapToObj(i -> "token-" + i).toList();
+
+        added.parallelStream().forEach(filter::put);
+
+        assertThat(added).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredOne() {
+        TokenBloomFilter filter = new TokenBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("known-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("unknown-" + i))
+                .count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        TokenBloomFilter filter = new TokenBloomFilter(1_000, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("abc")).isFalse();
+    }
+}
@@ -0,0 +1,140 @@
+package com.livemory.livemory_api.notification;
+
+import com.livemory.livemory_api.user.User;
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * COPY of notifications and their outbox rows against the real database.
+ */
+@SpringBootTest
+class NotificationBatchWriterTest {
+
+    private static final int NO_CHANNEL = NotificationPreferenceFlags.ALL
+            & ~(NotificationPreferenceFlags.EMAIL | NotificationPreferenceFlags.PUSH);
+    private static final int EMAIL_ONLY = NO_CHANNEL | NotificationPreferenceFlags.EMAIL;
+    private static final int PUSH_ONLY = NO_CHANNEL | NotificationPreferenceFlags.PUSH;
+
+    @Autowired
+    private NotificationBatchWriter batchWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setFirstName("Test");
+            user.setLastName("User");
+            user.setEmail("batch-" + UUID.randomUUID() + "@example.com");
+            users.add(userRepository.save(user));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        Long[] ids = users.stream().map(User::getId).toArray(Long[]::new);
+        jdbcTemplate.update("DELETE FROM notification_outbox WHERE notification_id IN "
+                + "(SELECT id FROM notifications WHERE user_id = ANY (?))", (Object) ids);
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ANY (?)", (Object) ids);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void textIsStoredAsIsWhateverItContains() {
+        String message = "Tab\there, line\nbreak, CR\r, back\\slash, \\N, \"quotes\", 'apostrophes', émoji 🎉";
+
+        write(List.of(pending(users.get(0), "Title\t|\\", message, "EVENT", 42L, "/events/42", EMAIL_ONLY)));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT type, title, message, related_entity_type, "
+                + "related_entity_id, action_url, digest_count, is_read, is_sent FROM notifications WHERE user_id = ?",
+                users.get(0).getId());
+        assertThat(row).containsEntry("type", "EVENT_REMINDER")
+                .containsEntry("title", "Title\t|\\")
+                .containsEntry("message", message)
+                .containsEntry("related_entity_type", "EVENT")
+                .containsEntry("related_entity_id", 42L)
+                .containsEntry("action_url", "/events/42")
+                .containsEntry("digest_count", 3)
+                .containsEntry("is_read", false)
+                .containsEntry("is_sent", false);
+    }
+
+    @Test
+    void missingOptionalFieldsAreNull() {
+        write(List.of(pending(users.get(0), "Title", "Message", null, null, null, EMAIL_ONLY)));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT related_entity_type, related_entity_id, "
+                + "action_url FROM notifications WHERE user_id = ?", users.get(0).getId());
+        assertThat(row.values()).containsOnlyNulls();
+    }
+
+    @Test
+    void eachNotificationGetsOnePendingOutboxRowPerChannel() {
+        write(List.of(
+                pending(users.get(0), "A", "A", null, null, null, NotificationPreferenceFlags.ALL),
+                pending(users.get(1), "B", "B", null, null, null, NO_CHANNEL),
+                pending(users.get(2), "C", "C", null, null, null, PUSH_ONLY)));
+
+        assertThat(channels(users.get(0))).containsExactly("EMAIL", "PUSH");
+        assertThat(channels(users.get(1))).isEmpty();
+        assertThat(channels(users.get(2))).containsExactly("PUSH");
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT o.status || ':' || o.attempts FROM notification_outbox o "
+                + "JOIN notifications n ON n.id = o.notification_id WHERE n.user_id = ANY (?)", String.class,
+                (Object) users.stream().map(User::getId).toArray(Long[]::new))).containsExactly("PENDING:0");
+    }
+
+    @Test
+    void batchesLargerThanAChunkAreWrittenInFull() {
+        List<PendingNotification> notifications = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            notifications.add(pending(users.get(i % users.size()), "N" + i, "M" + i, null, null, null, EMAIL_ONLY));
+        }
+
+        write(notifications);
+
+        for (User user : users) {
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications n JOIN notification_outbox o "
+                    + "ON o.notification_id = n.id WHERE n.user_id = ?", Long.class, user.getId()))
+                    .isEqualTo(users.indexOf(user) == 0 ? 834L : 833L);
+        }
+    }
+
+    private void write(List<PendingNotification> notifications) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> batchWriter.write(notifications));
+    }
+
+    private List<String> channels(User user) {
+        return jdbcTemplate.queryForList("SELECT o.channel FROM notification_outbox o JOIN notifications n "
+                + "ON n.id = o.notification_id WHERE n.user_id = ? ORDER BY o.channel", String.class, user.getId());
+    }
+
+    private static PendingNotification pending(User user, String title, String message, String relatedEntityType,
+            Long relatedEntityId, String actionUrl, int preferences) {
+        return new PendingNotification(user.getId(), NotificationType.EVENT_REMINDER, title, message,
+                relatedEntityType, relatedEntityId, actionUrl, 3, preferences);
+    }
+}
@@ -0,0 +1,153 @@
+package com.livemory.livemory_api.notification;
+
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Window closing, merging and write failures of the digest buffer, flushed by hand.
+ */
+class NotificationCoalescerTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(200);
+
+    private final NotificationBatchWriter batchWriter = mock(NotificationBatchWriter.class);
+    private final List<List<PendingNotification>> written = new ArrayList<>();
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        NotificationPreferencesCache preferencesCache = mock(NotificationPreferencesCache.class);
+        doAnswer(invocation -> {
+            List<Long> userIds = invocation.getArgument(0);
+            ObjIntConsumer<Long> action = invocation.getArgument(1);
+            userIds.forEach(userId -> action.accept(userId, NotificationPreferenceFlags.ALL));
+            return null;
+        }).when(preferencesCache).forEachRecipient(anyList(), any());
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsById(any())).thenReturn(true);
+        doAnswer(invocation -> written.add(new ArrayList<>(invocation.getArgument(0))))
+                .when(batchWriter).write(anyList());
+
+        // Nothing is scheduled outside a Spring context: the tests flush by hand
+        coalescer = new NotificationCoalescer(mock(NotificationService.class), batchWriter, preferencesCache,
+                userRepository, mock(PlatformTransactionManager.class), WINDOW, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void notificationsAboutTheSameEntityAreMergedIntoOneDigest() {
+        coalescer.submit(request(1L, 10L, "first"));
+        coalescer.submit(request(1L, 10L, "second"));
+        coalescer.submit(request(1L, 10L, "third"));
+        coalescer.submit(request(1L, 11L, "other entity"));
+        coalescer.submit(request(2L, 10L, "other user"));
+
+        coalescer.flush(true);
+
+        assertThat(written).hasSize(1);
+        assertThat(written.get(0)).hasSize(3);
+        PendingNotification digest = find(written.get(0), 1L, 10L);
+        assertThat(digest.digestCount()).isEqualTo(3);
+        assertThat(digest.title()).isEqualTo("third");
+        assertThat(find(written.get(0), 1L, 11L).digestCount()).isEqualTo(1);
+        assertThat(find(written.get(0), 2L, 10L).digestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void digestIsWrittenOnlyOnceItsWindowHasClosed() throws InterruptedException {
+        coalescer.submit(request(1L, 10L, "first"));
+        coalescer.flush(false);
+        verify(batchWriter, never()).write(anyList());
+
+        Thread.sleep(WINDOW.toMillis() + 50);
+        coalescer.submit(request(2L, 10L, "opened later"));
+        coalescer.flush(false);
+
+        assertThat(written).hasSize(1);
+        assertThat(written.get(0)).extracting(PendingNotification::userId).containsExactly(1L);
+
+        // A notification arriving after the flush opens a new window
+        coalescer.submit(request(1L, 10L, "next window"));
+        coalescer.flush(true);
+        assertThat(written.get(1)).extracting(PendingNotification::digestCount).containsExactlyInAnyOrder(1, 1);
+    }
+
+    @Test
+    void failedWriteIsRequeuedAndMergedWithNewNotifications() throws InterruptedException {
+        coalescer.submit(request(1L, 10L, "first"));
+        coalescer.submit(request(1L, 10L, "second"));
+        doThrow(new IllegalStateException("database down")).doAnswer(invocation -> written.add(
+                new ArrayList<>(invocation.getArgument(0)))).when(batchWriter).write(anyList());
+
+        Thread.sleep(WINDOW.toMillis() + 50);
+        coalescer.flush(false);
+        assertThat(written).isEmpty();
+
+        coalescer.submit(request(1L, 10L, "after the outage"));
+        // The requeued digest keeps its closed window, so it does not wait for a new one
+        coalescer.flush(false);
+
+        assertThat(written).hasSize(1);
+        PendingNotification digest = find(written.get(0), 1L, 10L);
+        assertThat(digest.digestCount()).isEqualTo(3);
+        assertThat(digest.title()).isEqualTo("after the outage");
+    }
+
+    @Test
+    void digestIsDroppedAfterTooManyFailedWrites() {
+        coalescer.submit(request(1L, 10L, "first"));
+        doThrow(new IllegalStateException("constraint violation")).when(batchWriter).write(anyList());
+
+        for (int i = 0; i < NotificationCoalescer.MAX_WRITE_ATTEMPTS + 2; i++) {
+            coalescer.flush(true);
+        }
+
+        verify(batchWriter, times(NotificationCoalescer.MAX_WRITE_ATTEMPTS)).write(anyList());
+    }
+
+    @Test
+    void shutdownWritesWhatIsStillBuffered() {
+        coalescer.submit(request(1L, 10L, "first"));
+        coalescer.shutdown();
+
+        ArgumentCaptor<List<PendingNotification>> captor = ArgumentCaptor.captor();
+        verify(batchWriter).write(captor.capture());
+        assertThat(captor.getValue()).hasSize(1);
+    }
+
+    private static CreateNotificationRequest request(Long userId, Long entityId, String title) {
+        return new CreateNotificationRequest(userId, null, NotificationType.EVENT_REMINDER, title, "message",
+                "EVENT", entityId, "/events/" + entityId);
+    }
+
+    private static PendingNotification find(List<PendingNotification> notifications, Long userId, Long entityId) {
+        return notifications.stream()
+                .filter(n -> n.userId().equals(userId) && n.relatedEntityId().equals(entityId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
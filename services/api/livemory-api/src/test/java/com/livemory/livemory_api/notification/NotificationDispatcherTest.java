@@ -0,0 +1,303 @@
+package com.livemory.livemory_api.notification;
+
+import com.livemory.livemory_api.user.User;
+import com.livemory.livemory_api.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Claim, lease and retry of the outbox against the real database. The application's own poller is
+ * disabled for tests; each test runs polls by hand on dispatchers with recording channels.
+ */
+@SpringBootTest
+class NotificationDispatcherTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final Duration INITIAL_BACKOFF = Duration.ofMinutes(1);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(3);
+    private static final int MAX_ATTEMPTS = 4;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private final List<NotificationDispatcher> dispatchers = new ArrayList<>();
+    private volatile String failure;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("dispatch-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatchers.forEach(NotificationDispatcher::shutdown);
+        jdbcTemplate.update("DELETE FROM notification_outbox WHERE notification_id IN "
+                + "(SELECT id FROM notifications WHERE user_id = ?)", user.getId());
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", user.getId());
+        userRepository.delete(user);
+    }
+
+    @Test
+    void deliveredRowsAreDeletedAndTheirNotificationMarkedSent() {
+        Long notificationId = createNotification();
+        List<Long> outboxIds = outboxIds(notificationId);
+        assertThat(outboxIds).hasSize(2);
+
+        dispatcher(100).dispatchDue();
+
+        outboxIds.forEach(id -> assertThat(attempts(id)).isEqualTo(1));
+        assertThat(outboxIds(notificationId)).isEmpty();
+        assertThat(notificationRepository.findById(notificationId)).get()
+                .satisfies(notification -> {
+                    assertThat(notification.getIsSent()).isTrue();
+                    assertThat(notification.getSentAt()).isNotNull();
+                });
+    }
+
+    @Test
+    void failedDeliveryIsRescheduledAfterTheInitialBackoff() {
+        Long notificationId = createNotification();
+        failure = "Provider unavailable";
+        NotificationDispatcher dispatcher = dispatcher(100);
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchDue();
+        dispatcher.dispatchDue();
+
+        for (Long id : outboxIds(notificationId)) {
+            // Not due again yet: the second poll leaves it alone
+            assertThat(attempts(id)).isEqualTo(1);
+            Map<String, Object> row = row(id);
+            assertThat(row.get("status")).isEqualTo("PENDING");
+            assertThat(row.get("attempts")).isEqualTo(1);
+            assertThat(row.get("last_error")).isEqualTo("Provider unavailable");
+            assertThat(nextAttemptAt(id)).isCloseTo(before.plus(INITIAL_BACKOFF), within(5, ChronoUnit.SECONDS));
+        }
+        assertThat(notificationRepository.findById(notificationId)).get()
+                .satisfies(notification -> assertThat(notification.getIsSent()).isFalse());
+    }
+
+    @Test
+    void backoffDoublesUpToTheMaximumThenTheRowFails() {
+        Long outboxId = outboxIds(createNotification()).get(0);
+        failure = "Provider unavailable";
+        NotificationDispatcher dispatcher = dispatcher(100);
+
+        // Attempts 1 to 3 are rescheduled after 1, 2, then 3 minutes (4 capped at the maximum)
+        for (Duration delay : List.of(Duration.ofMinutes(1), Duration.ofMinutes(2), MAX_BACKOFF)) {
+            makeDue(outboxId);
+            LocalDateTime before = LocalDateTime.now();
+            dispatcher.dispatchDue();
+            assertThat(row(outboxId).get("status")).isEqualTo("PENDING");
+            assertThat(nextAttemptAt(outboxId)).isCloseTo(before.plus(delay), within(5, ChronoUnit.SECONDS));
+        }
+
+        makeDue(outboxId);
+        dispatcher.dispatchDue();
+        assertThat(row(outboxId).get("status")).isEqualTo("FAILED");
+        assertThat(row(outboxId).get("attempts")).isEqualTo(MAX_ATTEMPTS);
+
+        // Failed rows are never claimed again
+        makeDue(outboxId);
+        dispatcher.dispatchDue();
+        assertThat(attempts(outboxId)).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void rowLeasedByACrashedInstanceIsRetriedOnceTheLeaseExpires() {
+        Long notificationId = createNotification();
+        List<Long> outboxIds = outboxIds(notificationId);
+        // Another instance claims the rows, then dies before delivering them
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxRepository.lease(outboxIds, LocalDateTime.now().plus(LEASE)));
+        NotificationDispatcher dispatcher = dispatcher(100);
+
+        dispatcher.dispatchDue();
+        outboxIds.forEach(id -> assertThat(attempts(id)).isZero());
+
+        outboxIds.forEach(this::makeDue);
+        dispatcher.dispatchDue();
+        outboxIds.forEach(id -> assertThat(attempts(id)).isEqualTo(1));
+        assertThat(outboxIds(notificationId)).isEmpty();
+    }
+
+    @Test
+    void rowLockedByAnotherInstanceIsSkippedWithoutWaiting() throws Exception {
+        Long locked = outboxIds(createNotification()).get(0);
+        Long notificationId = createNotification();
+        CountDownLatch lockHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = other.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT id FROM notification_outbox WHERE id = ? FOR UPDATE", locked);
+                lockHeld.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(lockHeld.await(10, TimeUnit.SECONDS)).isTrue();
+
+            long start = System.nanoTime();
+            dispatcher(100).dispatchDue();
+
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+            assertThat(attempts(locked)).isZero();
+            assertThat(outboxIds(notificationId)).isEmpty();
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentDispatchersDeliverEachRowOnce() throws Exception {
+        List<Long> outboxIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            outboxIds.addAll(outboxIds(createNotification()));
+        }
+        NotificationDispatcher first = dispatcher(5);
+        NotificationDispatcher second = dispatcher(5);
+        ExecutorService pollers = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> a = pollers.submit(() -> {
+                start.await();
+                first.dispatchDue();
+                return null;
+            });
+            Future<?> b = pollers.submit(() -> {
+                start.await();
+                second.dispatchDue();
+                return null;
+            });
+            start.countDown();
+            a.get(30, TimeUnit.SECONDS);
+            b.get(30, TimeUnit.SECONDS);
+        } finally {
+            pollers.shutdownNow();
+        }
+
+        outboxIds.forEach(id -> assertThat(attempts(id)).as("outbox row %d", id).isEqualTo(1));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox WHERE id IN ("
+                + String.join(",", outboxIds.stream().map(String::valueOf).toList()) + ")", Long.class)).isZero();
+    }
+
+    @Test
+    void rowWithoutItsNotificationIsDropped() {
+        Long orphan = jdbcTemplate.queryForObject("INSERT INTO notification_outbox (notification_id, channel) "
+                + "VALUES (-1, 'EMAIL') RETURNING id", Long.class);
+
+        dispatcher(100).dispatchDue();
+
+        assertThat(attempts(orphan)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox WHERE id = ?",
+                Long.class, orphan)).isZero();
+    }
+
+    private NotificationDispatcher dispatcher(int batchSize) {
+        List<NotificationChannel> channels = List.of(channel(DeliveryChannel.EMAIL), channel(DeliveryChannel.PUSH));
+        NotificationDispatcher dispatcher = new NotificationDispatcher(outboxRepository, notificationRepository,
+                transactionManager, channels, false, batchSize, 4, LEASE, MAX_ATTEMPTS,
+                INITIAL_BACKOFF, MAX_BACKOFF);
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    private NotificationChannel channel(DeliveryChannel deliveryChannel) {
+        return new NotificationChannel() {
+            @Override
+            public DeliveryChannel channel() {
+                return deliveryChannel;
+            }
+
+            @Override
+            public void deliver(NotificationDelivery delivery) {
+                attempts.computeIfAbsent(delivery.outboxId(), id -> new AtomicInteger()).incrementAndGet();
+                if (failure != null) {
+                    throw new IllegalStateException(failure);
+                }
+            }
+        };
+    }
+
+    private Long createNotification() {
+        return notificationService.createNotification(new CreateNotificationRequest(user.getId(), null,
+                NotificationType.EVENT_REMINDER, "Reminder", "Your event starts soon", null, null, null)).getId();
+    }
+
+    private List<Long> outboxIds(Long notificationId) {
+        return jdbcTemplate.queryForList("SELECT id FROM notification_outbox WHERE notification_id = ? ORDER BY id",
+                Long.class, notificationId);
+    }
+
+    private int attempts(Long outboxId) {
+        AtomicInteger count = attempts.get(outboxId);
+        return count == null ? 0 : count.get();
+    }
+
+    private Map<String, Object> row(Long outboxId) {
+        return jdbcTemplate.queryForMap("SELECT status, attempts, last_error FROM notification_outbox WHERE id = ?",
+                outboxId);
+    }
+
+    private LocalDateTime nextAttemptAt(Long outboxId) {
+        return jdbcTemplate.queryForObject("SELECT next_attempt_at FROM notification_outbox WHERE id = ?",
+                Timestamp.class, outboxId).toLocalDateTime();
+    }
+
+    private void makeDue(Long outboxId) {
+        jdbcTemplate.update("UPDATE notification_outbox SET next_attempt_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), outboxId);
+    }
+}
@@ -0,0 +1,91 @@
+package com.livemory.livemory_api.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Loads racing with preference updates, replayed deterministically from inside the mocked query.
+ */
+class NotificationPreferencesCacheTest {
+
+    private static final int NO_EMAIL = NotificationPreferenceFlags.ALL & ~NotificationPreferenceFlags.EMAIL;
+
+    private final NotificationPreferencesRepository repository = mock(NotificationPreferencesRepository.class);
+    private final NotificationPreferencesCache cache = new NotificationPreferencesCache(repository,
+            new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(5));
+
+    @Test
+    void bulkLoadDoesNotOverwriteAnUpdateMadeWhileItRan() {
+        when(repository.findRecipientsByUserIds(any())).thenAnswer(invocation -> {
+            // The old row was read, then the user turns emails off before the load stores it
+            cache.update(1L, NO_EMAIL);
+            return loaded(invocation.getArgument(0), NotificationPreferenceFlags.ALL);
+        });
+
+        List<NotificationRecipient> recipients = recipients(List.of(1L, 2L));
+
+        assertThat(recipients).containsExactly(
+                new NotificationRecipient(1L, NO_EMAIL),
+                new NotificationRecipient(2L, NotificationPreferenceFlags.ALL));
+        assertThat(cache.get(1L)).isEqualTo(NO_EMAIL);
+    }
+
+    @Test
+    void onlyMissingUsersAreLoaded() {
+        when(repository.findRecipientsByUserIds(any())).thenAnswer(invocation ->
+                loaded(invocation.getArgument(0), NotificationPreferenceFlags.ALL));
+        recipients(List.of(1L, 2L));
+
+        List<NotificationRecipient> recipients = recipients(List.of(2L, 3L, 1L));
+
+        assertThat(recipients).extracting(NotificationRecipient::userId).containsExactly(2L, 3L, 1L);
+        verify(repository).findRecipientsByUserIds(List.of(3L));
+        verify(repository, times(2)).findRecipientsByUserIds(any());
+    }
+
+    @Test
+    void unknownUsersAreLeftOut() {
+        when(repository.findRecipientsByUserIds(any())).thenReturn(List.of(
+                new NotificationRecipient(1L, NotificationPreferenceFlags.ALL)));
+
+        assertThat(recipients(List.of(1L, 99L))).extracting(NotificationRecipient::userId)
+                .containsExactly(1L);
+        assertThat(cache.get(99L)).isEqualTo(NotificationPreferenceFlags.ALL);
+    }
+
+    @Test
+    void updateReplacesCachedFlags() {
+        when(repository.findRecipientsByUserIds(any())).thenAnswer(invocation ->
+                loaded(invocation.getArgument(0), NotificationPreferenceFlags.ALL));
+        assertThat(cache.get(1L)).isEqualTo(NotificationPreferenceFlags.ALL);
+
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setEmailEnabled(false);
+        cache.update(1L, NotificationPreferenceFlags.of(preferences));
+
+        assertThat(cache.get(1L)).isEqualTo(NO_EMAIL);
+        verify(repository, times(1)).findRecipientsByUserIds(any());
+    }
+
+    private List<NotificationRecipient> recipients(List<Long> userIds) {
+        List<NotificationRecipient> recipients = new ArrayList<>();
+        cache.forEachRecipient(userIds, (userId, flags) -> recipients.add(new NotificationRecipient(userId, flags)));
+        return recipients;
+    }
+
+    private static List<NotificationRecipient> loaded(Collection<Long> userIds, int flags) {
+        return userIds.stream().map(userId -> new NotificationRecipient(userId, flags)).toList();
+    }
+}
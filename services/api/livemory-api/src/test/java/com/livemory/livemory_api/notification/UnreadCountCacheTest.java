@@ -0,0 +1,133 @@
+package com.livemory.livemory_api.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counter adjustments around commit and rollback, on a transaction manager that only runs the
+ * synchronizations.
+ */
+class UnreadCountCacheTest {
+
+    private final UnreadCountCache cache = new UnreadCountCache(new SimpleMeterRegistry(), 1_000,
+            Duration.ofMinutes(10));
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new SynchronizingTransactionManager());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void adjustmentIsAppliedOnlyAfterCommit() {
+        assertThat(count(1L, 5)).isEqualTo(5);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.increment(1L);
+            cache.increment(1L);
+            assertThat(count(1L, 0)).isEqualTo(5);
+        });
+
+        assertThat(count(1L, 0)).isEqualTo(7);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void rolledBackAdjustmentIsDropped() {
+        assertThat(count(1L, 5)).isEqualTo(5);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.decrement(1L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(count(1L, 0)).isEqualTo(5);
+    }
+
+    @Test
+    void adjustmentOutsideATransactionIsAppliedAtOnce() {
+        assertThat(count(1L, 5)).isEqualTo(5);
+
+        cache.adjust(1L, -2);
+
+        assertThat(count(1L, 0)).isEqualTo(3);
+    }
+
+    @Test
+    void userWithoutAnEntryIsCountedOnTheNextRead() {
+        cache.increment(1L);
+
+        assertThat(count(1L, 4)).isEqualTo(4);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void countBelowZeroIsReloaded() {
+        assertThat(count(1L, 1)).isEqualTo(1);
+
+        cache.adjust(1L, -2);
+
+        assertThat(count(1L, 3)).isEqualTo(3);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void batchAdjustmentIsAppliedToEveryCachedUserAfterCommit() {
+        assertThat(count(1L, 1)).isEqualTo(1);
+        assertThat(count(2L, 10)).isEqualTo(10);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.adjustAll(Map.of(1L, 2L, 2L, -3L, 3L, 1L));
+            assertThat(count(1L, 0)).isEqualTo(1);
+        });
+
+        assertThat(count(1L, 0)).isEqualTo(3);
+        assertThat(count(2L, 0)).isEqualTo(7);
+        assertThat(count(3L, 6)).isEqualTo(6);
+    }
+
+    @Test
+    void rolledBackBatchAdjustmentIsDropped() {
+        assertThat(count(1L, 1)).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.adjustAll(Map.of(1L, 5L));
+            status.setRollbackOnly();
+        });
+
+        assertThat(count(1L, 0)).isEqualTo(1);
+    }
+
+    private long count(Long userId, long stored) {
+        return cache.get(userId, () -> {
+            loads.incrementAndGet();
+            return stored;
+        });
+    }
+
+    private static final class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.livemory.livemory_api.offer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching every upcoming event against the offer catalog: the single sweep used for batches
+ * against matching each event on its own (no database).
+ * Run with: mvn -Pbenchmark test -DskipTests -Dbenchmark=OfferMatcherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgs = { "-Xmx512m" })
+public class OfferMatcherBenchmark {
+
+    private static final int LIMIT = 5;
+
+    @Param({ "10000" })
+    private int offers;
+
+    @Param({ "10000" })
+    private int events;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private OfferMatcher matcher;
+    private List<OfferMatchTarget> targets;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        OfferCategory[] categories = OfferCategory.values();
+
+        List<PartnerOfferResponse> catalog = new ArrayList<>(offers);
+        for (int i = 0; i < offers; i++) {
+            // Most offers run for a few weeks somewhere in the year, some never expire
+            LocalDateTime from = now.plusDays(random.nextInt(365));
+            LocalDateTime until = random.nextInt(10) == 0 ? null : from.plusDays(7 + random.nextInt(60));
+            catalog.add(new PartnerOfferResponse((long) i, "Offre " + i, null, "Partenaire " + (i % 500),
+                    categories[i % categories.length], BigDecimal.valueOf(500 + random.nextInt(4500), 2),
+                    null, null, null, 2 + random.nextInt(30), from, until));
+        }
+        matcher = new OfferMatcher(catalog);
+
+        targets = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            targets.add(new OfferMatchTarget((long) i, now.plusHours(random.nextInt(365 * 24)),
+                    1 + random.nextInt(25)));
+        }
+    }
+
+    @Benchmark
+    public List<List<PartnerOfferResponse>> sweep() {
+        return matcher.matchAll(targets, now, LIMIT);
+    }
+
+    @Benchmark
+    public List<List<PartnerOfferResponse>> perEvent() {
+        List<List<PartnerOfferResponse>> results = new ArrayList<>(targets.size());
+        for (OfferMatchTarget target : targets) {
+            results.add(matcher.match(target, now, LIMIT));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,164 @@
+package com.livemory.livemory_api.offer;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The single sweep of matchAll against match, and both against a plain filter of the catalog.
+ */
+class OfferMatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final AtomicLong SEED = new AtomicLong(20250101);
+
+    @RepeatedTest(50)
+    void sweepAgreesWithScanOnRandomCatalogs() {
+        long seed = SEED.getAndIncrement();
+        Random random = new Random(seed);
+        // Dates on a coarse grid, so events often start exactly when a window opens or closes
+        List<PartnerOfferResponse> catalog = new ArrayList<>();
+        int offerCount = random.nextInt(60);
+        for (int i = 0; i < offerCount; i++) {
+            LocalDateTime from = random.nextInt(5) == 0 ? null : day(random.nextInt(20));
+            LocalDateTime until = random.nextInt(5) == 0 ? null : day(random.nextInt(20));
+            BigDecimal discount = random.nextInt(6) == 0 ? null : BigDecimal.valueOf(random.nextInt(5) * 5);
+            catalog.add(offer(i, discount, 1 + random.nextInt(10), from, until));
+        }
+        List<OfferMatchTarget> targets = new ArrayList<>();
+        int targetCount = random.nextInt(40);
+        for (int i = 0; i < targetCount; i++) {
+            LocalDateTime start = random.nextInt(8) == 0 ? null : day(random.nextInt(22) - 1);
+            targets.add(new OfferMatchTarget((long) i, start, random.nextInt(12)));
+        }
+        int limit = 1 + random.nextInt(offerCount + 3);
+
+        assertAgree(catalog, targets, limit, "seed " + seed);
+    }
+
+    @Test
+    void windowBoundsAreInclusive() {
+        List<PartnerOfferResponse> catalog = List.of(
+                offer(1, BigDecimal.TEN, 2, day(5), day(10)),
+                offer(2, BigDecimal.ONE, 2, day(10), day(10)));
+        OfferMatcher matcher = new OfferMatcher(catalog);
+
+        assertThat(ids(matcher.match(target(day(5), 4), NOW, 10))).containsExactly(1L);
+        assertThat(ids(matcher.match(target(day(10), 4), NOW, 10))).containsExactly(1L, 2L);
+        assertThat(ids(matcher.match(target(day(10).plusNanos(1_000_000), 4), NOW, 10))).isEmpty();
+        assertThat(ids(matcher.match(target(day(5).minusNanos(1_000_000), 4), NOW, 10))).isEmpty();
+        assertAgree(catalog, List.of(target(day(4), 4), target(day(5), 4), target(day(10), 4), target(day(11), 4)),
+                10, "window bounds");
+    }
+
+    @Test
+    void openEndedWindowsAlwaysApplyOnTheirOpenSide() {
+        List<PartnerOfferResponse> catalog = List.of(
+                offer(1, BigDecimal.TEN, 2, null, day(3)),
+                offer(2, BigDecimal.ONE, 2, day(3), null),
+                offer(3, BigDecimal.ZERO, 2, null, null));
+        OfferMatcher matcher = new OfferMatcher(catalog);
+
+        assertThat(ids(matcher.match(target(day(-1000), 2), NOW, 10))).containsExactly(1L, 3L);
+        assertThat(ids(matcher.match(target(day(3), 2), NOW, 10))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(matcher.match(target(day(1000), 2), NOW, 10))).containsExactly(2L, 3L);
+        assertAgree(catalog, List.of(target(day(-1000), 2), target(day(3), 2), target(day(1000), 2)), 10,
+                "open-ended windows");
+    }
+
+    @Test
+    void limitLargerThanTheMatchesReturnsThemAll() {
+        List<PartnerOfferResponse> catalog = List.of(
+                offer(1, BigDecimal.ONE, 5, null, null),
+                offer(2, BigDecimal.TEN, 1, null, null),
+                offer(3, null, 1, null, null));
+        OfferMatcher matcher = new OfferMatcher(catalog);
+
+        assertThat(ids(matcher.match(target(NOW, 3), NOW, 50))).containsExactly(2L, 3L);
+        assertThat(ids(matcher.matchAll(List.of(target(NOW, 3)), NOW, 50).get(0))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void eventWithoutStartDateIsMatchedAtTheDefaultStart() {
+        List<PartnerOfferResponse> catalog = List.of(offer(1, BigDecimal.ONE, 1, day(0), day(0)));
+        OfferMatcher matcher = new OfferMatcher(catalog);
+
+        assertThat(matcher.match(target(null, 1), day(0), 5)).hasSize(1);
+        assertThat(matcher.matchAll(List.of(target(null, 1)), day(1), 5).get(0)).isEmpty();
+    }
+
+    @Test
+    void invertedWindowNeverMatches() {
+        OfferMatcher matcher = new OfferMatcher(List.of(offer(1, BigDecimal.ONE, 1, day(5), day(4))));
+
+        assertThat(matcher.match(target(day(4), 1), NOW, 5)).isEmpty();
+        assertThat(matcher.match(target(day(5), 1), NOW, 5)).isEmpty();
+        assertThat(matcher.matchAll(List.of(target(day(4), 1), target(day(5), 1)), NOW, 5))
+                .allMatch(List::isEmpty);
+    }
+
+    @Test
+    void emptyCatalogAndNoTargets() {
+        OfferMatcher empty = new OfferMatcher(List.of());
+
+        assertThat(empty.match(target(NOW, 10), NOW, 5)).isEmpty();
+        assertThat(empty.matchAll(List.of(target(NOW, 10)), NOW, 5)).containsExactly(List.of());
+        assertThat(new OfferMatcher(List.of(offer(1, null, 1, null, null))).matchAll(List.of(), NOW, 5)).isEmpty();
+    }
+
+    private static void assertAgree(List<PartnerOfferResponse> catalog, List<OfferMatchTarget> targets, int limit,
+            String description) {
+        OfferMatcher matcher = new OfferMatcher(catalog);
+        List<List<PartnerOfferResponse>> swept = matcher.matchAll(targets, NOW, limit);
+
+        assertThat(swept).as(description).hasSize(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            OfferMatchTarget target = targets.get(i);
+            List<PartnerOfferResponse> scanned = matcher.match(target, NOW, limit);
+            assertThat(swept.get(i)).as("%s, target %s", description, target).isEqualTo(scanned);
+            assertThat(ids(scanned)).as("%s, target %s", description, target)
+                    .isEqualTo(ids(reference(catalog, target, limit)));
+        }
+    }
+
+    // Filters the whole catalog, then ranks: discount first (none counts as zero), then id
+    private static List<PartnerOfferResponse> reference(List<PartnerOfferResponse> catalog, OfferMatchTarget target,
+            int limit) {
+        LocalDateTime at = target.startDate() != null ? target.startDate() : NOW;
+        return catalog.stream()
+                .filter(offer -> offer.minGroupSize() <= target.groupSize() && offer.isValidAt(at))
+                .sorted(Comparator.comparing((PartnerOfferResponse offer) -> offer.discountPercentage() != null
+                                ? offer.discountPercentage() : BigDecimal.ZERO)
+                        .reversed()
+                        .thenComparing(PartnerOfferResponse::id))
+                .limit(limit)
+                .toList();
+    }
+
+    private static PartnerOfferResponse offer(long id, BigDecimal discount, int minGroupSize, LocalDateTime from,
+            LocalDateTime until) {
+        return new PartnerOfferResponse(id, "Offre " + id, null, "Partenaire", OfferCategory.values()[0], discount,
+                null, null, null, minGroupSize, from, until);
+    }
+
+    private static OfferMatchTarget target(LocalDateTime start, int groupSize) {
+        return new OfferMatchTarget(0L, start, groupSize);
+    }
+
+    private static LocalDateTime day(int offset) {
+        return NOW.plusDays(offset);
+    }
+
+    private static List<Long> ids(List<PartnerOfferResponse> offers) {
+        return offers.stream().map(PartnerOfferResponse::id).toList();
+    }
+}